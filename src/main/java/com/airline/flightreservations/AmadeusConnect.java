@@ -11,10 +11,18 @@ import com.amadeus.resources.FlightPrice;
 import com.amadeus.resources.Location;
 
 import com.airline.flightreservations.dto.AirportDTO;
+import com.airline.flightreservations.transport.AmadeusTransport;
+import com.airline.flightreservations.transport.TransportAmadeus;
 import com.google.gson.JsonObject;
 import com.google.gson.Gson;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -23,16 +31,59 @@ import org.springframework.stereotype.Component;
 @Component
 public class AmadeusConnect {
     private final Amadeus amadeus;
+    private final boolean tokenPrefetch;
 
     public AmadeusConnect(
             @Value("${amadeus.api-key}") String apiKey,
-            @Value("${amadeus.api-secret}") String apiSecret) {
+            @Value("${amadeus.api-secret}") String apiSecret,
+            @Value("${amadeus.token-refresh-ahead:PT2M}") Duration tokenRefreshAhead,
+            @Value("${amadeus.host:}") String host,
+            @Value("${amadeus.port:0}") int port,
+            @Value("${amadeus.ssl:true}") boolean ssl,
+            @Value("${amadeus.token-prefetch:true}") boolean tokenPrefetch,
+            ObjectProvider<AmadeusTransport> transport) {
 
         if (apiKey == null || apiKey.isBlank() || apiSecret == null || apiSecret.isBlank()) {
             throw new IllegalStateException(
                     "Missing Amadeus credentials. Set AMADEUS_API_KEY and AMADEUS_API_SECRET.");
         }
-        this.amadeus = Amadeus.builder(apiKey.trim(), apiSecret.trim()).build();
+        com.amadeus.Configuration config = Amadeus.builder(apiKey.trim(), apiSecret.trim());
+
+        // Blank host keeps the SDK's test/production hostname; set for a stub upstream (startup benchmark)
+        if (!host.isBlank()) {
+            config.setHost(host.trim());
+            config.setSsl(ssl);
+            if (port > 0) config.setPort(port);
+        }
+
+        // Without a transport bean (amadeus.transport=sdk) the SDK's own HttpURLConnection client is used
+        AmadeusTransport t = transport.getIfAvailable();
+        this.tokenPrefetch = tokenPrefetch;
+        this.amadeus = t != null
+                ? new TransportAmadeus(config, t, tokenRefreshAhead.toMillis())
+                : config.build();
+    }
+
+    @PostConstruct
+    void start() {
+        if (tokenPrefetch && amadeus instanceof TransportAmadeus) {
+            ((TransportAmadeus) amadeus).start();
+        }
+    }
+
+    /** Upstream connection pool and token refresh stats. */
+    public Map<String, Object> transportStats() {
+        if (amadeus instanceof TransportAmadeus) {
+            return ((TransportAmadeus) amadeus).stats();
+        }
+        return Map.of("transport", "sdk");
+    }
+
+    @PreDestroy
+    void close() {
+        if (amadeus instanceof TransportAmadeus) {
+            ((TransportAmadeus) amadeus).close();
+        }
     }
 
 
@@ -140,6 +191,27 @@ public class AmadeusConnect {
 
 
 
+    /** Prices several offers in one request, e.g. the two one-way legs of a combined round trip. */
+    public JsonObject priceOffers(List<JsonObject> rawOffers) throws ResponseException {
+        Gson gson = new Gson();
+        FlightOfferSearch[] offers = new FlightOfferSearch[rawOffers.size()];
+        for (int i = 0; i < offers.length; i++) {
+            JsonObject raw = rawOffers.get(i).deepCopy();
+            // Each leg came from its own search, so their ids can collide
+            raw.addProperty("id", String.valueOf(i + 1));
+            offers[i] = gson.fromJson(raw, FlightOfferSearch.class);
+        }
+
+        FlightPrice priced = amadeus.shopping.flightOffersSearch.pricing.post(offers);
+
+        if (priced != null && priced.getResponse() != null) {
+            return priced.getResponse().getResult();
+        }
+        return new JsonObject();
+    }
+
+
+
     public FlightOrder order(JsonObject order) throws ResponseException {
         return amadeus.booking.flightOrders.post(order);
     }
@@ -5,31 +5,63 @@ import com.amadeus.resources.*;
 import com.fasterxml.jackson.databind.JsonNode;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.Set;
 
-/** Maps Amadeus SDK objects to our rich DTO for the frontend. */
+/**
+ * Maps Amadeus SDK objects to our rich DTO for the frontend.
+ *
+ * Every nested SDK field may be missing depending on the offer, so each one is
+ * null-checked explicitly rather than caught; mapping never throws.
+ * Lists are presized and segment cabins are looked up without building a map.
+ */
 final class AmadeusMapper {
     private AmadeusMapper() {}
 
     static List<LocationDTO> toLocationDTOs(Location[] locations) {
         if (locations == null) return List.of();
-        List<LocationDTO> out = new ArrayList<>();
+        List<LocationDTO> out = new ArrayList<>(locations.length);
         for (Location loc : locations) {
             if (loc == null) continue;
             LocationDTO dto = new LocationDTO();
-            try { dto.iataCode = loc.getIataCode(); } catch (Exception ignored) {}
-            try { dto.name = loc.getName(); } catch (Exception ignored) {}
-            try { dto.city = loc.getAddress().getCityName(); } catch (Exception ignored) {}
-            try { dto.countryCode = loc.getAddress().getCountryCode(); } catch (Exception ignored) {}
-            try { dto.latitude = loc.getGeoCode().getLatitude(); } catch (Exception ignored) {}
-            try { dto.longitude = loc.getGeoCode().getLongitude(); } catch (Exception ignored) {}
+            dto.iataCode = loc.getIataCode();
+            dto.name = loc.getName();
+            Location.Address address = loc.getAddress();
+            if (address != null) {
+                dto.city = address.getCityName();
+                dto.countryCode = address.getCountryCode();
+            }
+            Location.GeoCode geo = loc.getGeoCode();
+            if (geo != null) {
+                dto.latitude = geo.getLatitude();
+                dto.longitude = geo.getLongitude();
+            }
             out.add(dto);
         }
         return out;
     }
 
+    /** Distinct carrier codes across every segment of every offer, for the airline-name lookup. */
+    static Set<String> carrierCodes(FlightOfferSearch[] offers) {
+        Set<String> codes = new LinkedHashSet<>();
+        if (offers == null) return codes;
+        for (FlightOfferSearch offer : offers) {
+            if (offer == null || offer.getItineraries() == null) continue;
+            for (FlightOfferSearch.Itinerary itinerary : offer.getItineraries()) {
+                if (itinerary == null || itinerary.getSegments() == null) continue;
+                for (FlightOfferSearch.SearchSegment segment : itinerary.getSegments()) {
+                    if (segment != null && segment.getCarrierCode() != null) {
+                        codes.add(segment.getCarrierCode());
+                    }
+                }
+            }
+        }
+        return codes;
+    }
+
     /**
      * Creates a list of rich FlightOfferDTOs.
      * @param offers The original offers from the Amadeus SDK.
@@ -39,57 +71,133 @@ final class AmadeusMapper {
      */
     static List<FlightOfferDTO> toFlightOfferDTOs(FlightOfferSearch[] offers, Map<String, String> airlineNames, List<JsonNode> rawOffers) {
         if (offers == null) return List.of();
-        List<FlightOfferDTO> out = new ArrayList<>();
+        List<FlightOfferDTO> out = new ArrayList<>(offers.length);
 
         for (int i = 0; i < offers.length; i++) {
             FlightOfferSearch offer = offers[i];
             if (offer == null) continue;
 
             FlightOfferDTO dto = new FlightOfferDTO();
-            // Attach the raw JSON. This is critical for a stateless confirmation process.
-            dto.rawOffer = rawOffers.get(i);
+            // Attach the raw JSON. Still required by the stateless confirmation process.
+            dto.rawOffer = rawOffers != null && i < rawOffers.size() ? rawOffers.get(i) : null;
 
-            try {
-                // --- Populate Original Detailed Structure ---
-                dto.id = offer.getId();
+            // --- Populate Original Detailed Structure ---
+            dto.id = offer.getId();
+            FlightOfferSearch.SearchPrice searchPrice = offer.getPrice();
+            if (searchPrice != null) {
                 PriceDTO price = new PriceDTO();
-                price.total = String.valueOf(offer.getPrice().getTotal());
-                price.currency = offer.getPrice().getCurrency();
+                price.total = String.valueOf(searchPrice.getTotal());
+                price.currency = searchPrice.getCurrency();
                 dto.price = price;
+            }
+            String[] validating = offer.getValidatingAirlineCodes();
+            if (validating != null && validating.length > 0) {
+                dto.validatingAirlines = Arrays.asList(validating);
+            }
 
-                // --- Populate New Summary Fields ---
-                if (offer.getItineraries() != null && offer.getItineraries().length > 0) {
-                    FlightOfferSearch.Itinerary firstItinerary = offer.getItineraries()[0];
-                    dto.duration = firstItinerary.getDuration();
-
-                    if (firstItinerary.getSegments() != null && firstItinerary.getSegments().length > 0) {
-                        FlightOfferSearch.SearchSegment firstSegment = firstItinerary.getSegments()[0];
-                        FlightOfferSearch.SearchSegment lastSegment = firstItinerary.getSegments()[firstItinerary.getSegments().length - 1];
-
-                        String carrierCode = firstSegment.getCarrierCode();
-                        dto.carrierCode = carrierCode;
-                        // Enrich with the full airline name fetched earlier.
-                        dto.airlineName = airlineNames.getOrDefault(carrierCode, carrierCode);
-                        dto.flightNumber = firstSegment.getNumber();
-                        dto.numberOfStops = Math.max(0, firstItinerary.getSegments().length - 1);
-                        dto.originCode = firstSegment.getDeparture().getIataCode();
-                        dto.destinationCode = lastSegment.getArrival().getIataCode();
-                        dto.departureTime = firstSegment.getDeparture().getAt();
-                        dto.arrivalTime = lastSegment.getArrival().getAt();
-                    }
+            // Cabins are priced per traveler; the first traveler's fare details cover every segment
+            FlightOfferSearch.FareDetailsBySegment[] fareDetails = null;
+            FlightOfferSearch.TravelerPricing[] travelerPricings = offer.getTravelerPricings();
+            if (travelerPricings != null && travelerPricings.length > 0 && travelerPricings[0] != null) {
+                fareDetails = travelerPricings[0].getFareDetailsBySegment();
+            }
+
+            FlightOfferSearch.Itinerary[] itineraries = offer.getItineraries();
+            if (itineraries != null && itineraries.length > 0) {
+                List<ItineraryDTO> itineraryDTOs = new ArrayList<>(itineraries.length);
+                for (FlightOfferSearch.Itinerary itinerary : itineraries) {
+                    if (itinerary != null) itineraryDTOs.add(toItineraryDTO(itinerary, fareDetails));
                 }
+                dto.itineraries = itineraryDTOs;
+            }
 
-                if (offer.getTravelerPricings() != null && offer.getTravelerPricings().length > 0) {
-                    FlightOfferSearch.TravelerPricing travelerPricing = offer.getTravelerPricings()[0];
-                    if (travelerPricing.getFareDetailsBySegment() != null && travelerPricing.getFareDetailsBySegment().length > 0) {
-                        dto.cabin = travelerPricing.getFareDetailsBySegment()[0].getCabin();
-                    }
+            // --- Populate Summary Fields (outbound itinerary) ---
+            if (dto.itineraries != null && !dto.itineraries.isEmpty()) {
+                ItineraryDTO outbound = dto.itineraries.get(0);
+                dto.duration = outbound.duration;
+
+                List<SegmentDTO> segments = outbound.segments;
+                if (!segments.isEmpty()) {
+                    SegmentDTO first = segments.get(0);
+                    SegmentDTO last = segments.get(segments.size() - 1);
+
+                    dto.carrierCode = first.carrierCode;
+                    // Enrich with the full airline name fetched earlier.
+                    dto.airlineName = first.carrierCode != null && airlineNames != null
+                            ? airlineNames.getOrDefault(first.carrierCode, first.carrierCode)
+                            : first.carrierCode;
+                    dto.flightNumber = first.flightNumber;
+                    dto.numberOfStops = segments.size() - 1;
+                    dto.originCode = first.departureIata;
+                    dto.destinationCode = last.arrivalIata;
+                    dto.departureTime = first.departureAt;
+                    dto.arrivalTime = last.arrivalAt;
+                    dto.cabin = first.cabin;
                 }
-            } catch (Exception ignored) {
-                // Be resilient to unexpected changes in the Amadeus response.
+            }
+            if (dto.cabin == null && fareDetails != null && fareDetails.length > 0 && fareDetails[0] != null) {
+                dto.cabin = fareDetails[0].getCabin();
             }
             out.add(dto);
         }
         return out;
     }
-}
\ No newline at end of file
+
+    private static ItineraryDTO toItineraryDTO(FlightOfferSearch.Itinerary itinerary,
+                                               FlightOfferSearch.FareDetailsBySegment[] fareDetails) {
+        ItineraryDTO dto = new ItineraryDTO();
+        dto.duration = itinerary.getDuration();
+
+        FlightOfferSearch.SearchSegment[] segments = itinerary.getSegments();
+        if (segments == null) {
+            dto.segments = List.of();
+            return dto;
+        }
+        List<SegmentDTO> out = new ArrayList<>(segments.length);
+        for (FlightOfferSearch.SearchSegment segment : segments) {
+            if (segment != null) out.add(toSegmentDTO(segment, fareDetails));
+        }
+        dto.segments = out;
+        return dto;
+    }
+
+    private static SegmentDTO toSegmentDTO(FlightOfferSearch.SearchSegment segment,
+                                           FlightOfferSearch.FareDetailsBySegment[] fareDetails) {
+        SegmentDTO dto = new SegmentDTO();
+        dto.id = segment.getId();
+        dto.carrierCode = segment.getCarrierCode();
+        dto.flightNumber = segment.getNumber();
+        dto.duration = segment.getDuration();
+        dto.numberOfStops = segment.getNumberOfStops();
+
+        FlightOfferSearch.AirportInfo departure = segment.getDeparture();
+        if (departure != null) {
+            dto.departureIata = departure.getIataCode();
+            dto.departureTerminal = departure.getTerminal();
+            dto.departureAt = departure.getAt();
+        }
+        FlightOfferSearch.AirportInfo arrival = segment.getArrival();
+        if (arrival != null) {
+            dto.arrivalIata = arrival.getIataCode();
+            dto.arrivalTerminal = arrival.getTerminal();
+            dto.arrivalAt = arrival.getAt();
+        }
+        FlightOfferSearch.Aircraft aircraft = segment.getAircraft();
+        if (aircraft != null) {
+            dto.aircraftCode = aircraft.getCode();
+        }
+        dto.cabin = cabinFor(segment.getId(), fareDetails);
+        return dto;
+    }
+
+    // A handful of segments per offer, so a linear scan beats allocating a lookup map
+    private static String cabinFor(String segmentId, FlightOfferSearch.FareDetailsBySegment[] fareDetails) {
+        if (segmentId == null || fareDetails == null) return null;
+        for (FlightOfferSearch.FareDetailsBySegment details : fareDetails) {
+            if (details != null && segmentId.equals(details.getSegmentId())) {
+                return details.getCabin();
+            }
+        }
+        return null;
+    }
+}
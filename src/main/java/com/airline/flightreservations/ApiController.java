@@ -1,9 +1,22 @@
 package com.airline.flightreservations;
 
+import com.airline.flightreservations.admission.AdmissionControl;
+import com.airline.flightreservations.combine.LegCache;
+import com.airline.flightreservations.combine.RoundTripCombiner;
 import com.airline.flightreservations.dto.AirportDTO;
+import com.airline.flightreservations.dto.FareDTO;
 import com.airline.flightreservations.dto.FlightOfferDTO;
 import com.airline.flightreservations.dto.LocationDTO;
+import com.airline.flightreservations.dto.PriceDTO;
+import com.airline.flightreservations.dto.PriceWatchRequestDTO;
 import com.airline.flightreservations.dto.TravelerDTO;
+import com.airline.flightreservations.fares.FareCrawler;
+import com.airline.flightreservations.fares.FareIndex;
+import com.airline.flightreservations.fx.CurrencyReshop;
+import com.airline.flightreservations.fx.FxRates;
+import com.airline.flightreservations.geo.NearbyAirports;
+import com.airline.flightreservations.watch.PriceWatchScheduler;
+import com.airline.flightreservations.watch.WatchKey;
 import com.amadeus.exceptions.ResponseException;
 import com.amadeus.resources.FlightOfferSearch;
 import com.amadeus.resources.FlightOrder;
@@ -13,15 +26,17 @@ import com.amadeus.resources.Traveler;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.google.gson.JsonObject;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
@@ -30,7 +45,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -43,11 +60,28 @@ public class ApiController {
 
     private final AmadeusConnect amadeusConnect;
     private final ObjectMapper objectMapper;
+    private final PriceWatchScheduler priceWatches;
+    private final FareCrawler fareCrawler;
+    private final AdmissionControl admissionControl;
+    private final NearbyAirports nearbyAirports;
+    private final LegCache legCache;
+    private final FxRates fxRates;
+    private final CurrencyReshop currencyReshop;
 
     @Autowired
-    public ApiController(AmadeusConnect amadeusConnect, ObjectMapper objectMapper) {
+    public ApiController(AmadeusConnect amadeusConnect, ObjectMapper objectMapper,
+                         PriceWatchScheduler priceWatches, FareCrawler fareCrawler,
+                         AdmissionControl admissionControl, NearbyAirports nearbyAirports,
+                         LegCache legCache, FxRates fxRates, CurrencyReshop currencyReshop) {
         this.amadeusConnect = amadeusConnect;
         this.objectMapper = objectMapper;
+        this.priceWatches = priceWatches;
+        this.fareCrawler = fareCrawler;
+        this.admissionControl = admissionControl;
+        this.nearbyAirports = nearbyAirports;
+        this.legCache = legCache;
+        this.fxRates = fxRates;
+        this.currencyReshop = currencyReshop;
     }
 
     @GetMapping("/health")
@@ -55,6 +89,26 @@ public class ApiController {
         return Map.of("status", "ok");
     }
 
+    @GetMapping("/metrics/admission")
+    public Map<String, Object> admissionMetrics() {
+        return admissionControl.stats();
+    }
+
+    @GetMapping("/metrics/upstream")
+    public Map<String, Object> upstreamMetrics() {
+        return amadeusConnect.transportStats();
+    }
+
+    @GetMapping("/metrics/legs")
+    public Map<String, Object> legCacheMetrics() {
+        return legCache.stats();
+    }
+
+    @GetMapping("/metrics/fx")
+    public Map<String, Object> fxMetrics() {
+        return fxRates.stats();
+    }
+
     @GetMapping("/locations")
     public ResponseEntity<?> locations(
             @RequestParam String keyword,
@@ -73,6 +127,7 @@ public class ApiController {
             }
 
             List<LocationDTO> dto = AmadeusMapper.toLocationDTOs(results);
+            nearbyAirports.learn(dto);
             return ResponseEntity.ok(dto);
 
         } catch (ResponseException re) {
@@ -111,6 +166,26 @@ public class ApiController {
         }
     }
 
+    @GetMapping("/airports/nearby")
+    public ResponseEntity<?> nearbyAirports(
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam(required = false) Double radiusKm,   // geo.default-radius-km if absent
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        // Comparisons are false for NaN, so check the ranges the way round that rejects it
+        if (!(lat >= -90 && lat <= 90 && lon >= -180 && lon <= 180)) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Invalid coordinates", "details", "lat must be in [-90, 90] and lon in [-180, 180]"));
+        }
+        double radius = radiusKm != null ? radiusKm : nearbyAirports.defaultRadiusKm();
+        if (!(radius > 0 && Double.isFinite(radius)) || limit < 1) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Invalid search", "details", "radiusKm must be a positive number and limit at least 1"));
+        }
+        return ResponseEntity.ok(nearbyAirports.nearest(lat, lon, radius, Math.min(limit, 50)));
+    }
+
     @GetMapping("/flights")
     public ResponseEntity<?> flights(
             @RequestParam String origin,
@@ -126,6 +201,16 @@ public class ApiController {
             @RequestParam(required = false) String travelClass
     ) {
         try {
+            // Adult-only one-way searches run in the FX base currency when rates allow, cached if enabled
+            WatchKey oneWay = raw ? null : oneWayKey(origin, destination, departDate, adults, children, infants,
+                    returnDate, travelClass, currencyCode);
+            if (oneWay != null) {
+                List<FlightOfferDTO> found = legCache.cachesSearches()
+                        ? oneWayLeg(oneWay, maxResults).offers(maxResults)
+                        : searchOneWay(oneWay, maxResults);
+                return ResponseEntity.ok(fxRates.convert(found, currencyCode));
+            }
+
             FlightOfferSearch[] offers = amadeusConnect.flights(
                     origin, destination, departDate, adults, children, infants, returnDate, travelClass, currencyCode, maxResults
             );
@@ -139,31 +224,7 @@ public class ApiController {
                 return ResponseEntity.ok(Map.of("data", List.of()));
             }
 
-            Map<String, String> airlineNames = new HashMap<>();
-            List<JsonNode> rawOffersList = new ArrayList<>();
-
-            if (offers != null && offers.length > 0) {
-                JsonNode rawResultNode = objectMapper.readTree(offers[0].getResponse().getResult().toString());
-                ArrayNode dataArray = (ArrayNode) rawResultNode.get("data");
-                if (dataArray != null) {
-                    dataArray.forEach(rawOffersList::add);
-                }
-
-                Set<String> airlineCodes = Arrays.stream(offers)
-                        .filter(Objects::nonNull)
-                        .flatMap(offer -> Arrays.stream(offer.getItineraries()))
-                        .filter(Objects::nonNull)
-                        .flatMap(itinerary -> Arrays.stream(itinerary.getSegments()))
-                        .filter(Objects::nonNull)
-                        .map(FlightOfferSearch.SearchSegment::getCarrierCode)
-                        .collect(Collectors.toSet());
-
-                if (!airlineCodes.isEmpty()) {
-                    airlineNames = airlines(String.join(",", airlineCodes));
-                }
-            }
-
-            List<FlightOfferDTO> dto = AmadeusMapper.toFlightOfferDTOs(offers, airlineNames, rawOffersList);
+            List<FlightOfferDTO> dto = toFlightOfferDTOs(offers);
             return ResponseEntity.ok(dto);
 
         } catch (ResponseException re) {
@@ -175,6 +236,96 @@ public class ApiController {
         }
     }
 
+    @GetMapping("/flights/combinations")
+    public ResponseEntity<?> combinations(
+            @RequestParam String origin,
+            @RequestParam String destination,
+            @RequestParam String departDate,
+            @RequestParam String returnDate,
+            @RequestParam(defaultValue = "1") int adults,
+            @RequestParam(required = false) String returnOrigin,       // open jaw: fly back from here
+            @RequestParam(required = false) String returnDestination,  // open jaw: fly back to here
+            @RequestParam(defaultValue = "10") int maxResults,
+            @RequestParam(defaultValue = "USD") String currencyCode,
+            @RequestParam(required = false) String travelClass
+    ) {
+        try {
+            String searchCurrency = fxRates.searchCurrency(currencyCode);
+            WatchKey outboundKey = new WatchKey(origin, destination, LocalDate.parse(departDate),
+                    adults, travelClass, searchCurrency);
+            WatchKey inboundKey = new WatchKey(
+                    returnOrigin != null && !returnOrigin.isBlank() ? returnOrigin : destination,
+                    returnDestination != null && !returnDestination.isBlank() ? returnDestination : origin,
+                    LocalDate.parse(returnDate), adults, travelClass, searchCurrency);
+
+            LegCache.Leg outbound = oneWayLeg(outboundKey, legCache.fetchSize());
+            LegCache.Leg inbound = oneWayLeg(inboundKey, legCache.fetchSize());
+            List<FlightOfferDTO> combos = RoundTripCombiner.combine(outbound, inbound,
+                    Math.min(Math.max(maxResults, 1), 50), legCache.minStay());
+            return ResponseEntity.ok(fxRates.convert(combos, currencyCode));
+
+        } catch (DateTimeParseException ex) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Use dates as yyyy-MM-dd", "details", ex.getMessage()));
+        } catch (ResponseException re) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Error fetching flights", "details", re.getMessage()));
+        } catch (Exception ex) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to process flights", "details", ex.getMessage()));
+        }
+    }
+
+    // Key of a plain adult-only one-way search, or null when the search has to go upstream as asked
+    private WatchKey oneWayKey(String origin, String destination, String departDate, String adults,
+                               int children, int infants, String returnDate, String travelClass,
+                               String currencyCode) {
+        if ((returnDate != null && !returnDate.isBlank()) || children > 0 || infants > 0) return null;
+        if (currencyCode == null || !currencyCode.matches("(?i)^[A-Z]{3}$")) return null;
+        try {
+            int adultCount = Integer.parseInt(adults.trim());
+            if (adultCount < 1) return null;
+            return new WatchKey(origin, destination, LocalDate.parse(departDate), adultCount,
+                    travelClass, fxRates.searchCurrency(currencyCode));
+        } catch (DateTimeParseException | NumberFormatException ex) {
+            return null; // let upstream validate it as before
+        }
+    }
+
+    // Cached one-way results for the leg, searching upstream only on a miss
+    private LegCache.Leg oneWayLeg(WatchKey key, int maxResults) throws Exception {
+        return legCache.getOrLoad(key, maxResults, this::searchOneWay);
+    }
+
+    private List<FlightOfferDTO> searchOneWay(WatchKey key, int maxResults) throws Exception {
+        return toFlightOfferDTOs(amadeusConnect.flights(
+                key.origin, key.destination, key.departDate.toString(), String.valueOf(key.adults),
+                0, 0, null, key.travelClass, key.currencyCode, maxResults
+        ));
+    }
+
+    private List<FlightOfferDTO> toFlightOfferDTOs(FlightOfferSearch[] offers) throws Exception {
+        Map<String, String> airlineNames = new HashMap<>();
+        List<JsonNode> rawOffersList = new ArrayList<>();
+
+        if (offers != null && offers.length > 0) {
+            if (offers[0].getResponse() != null) {
+                JsonNode rawResultNode = objectMapper.readTree(offers[0].getResponse().getResult().toString());
+                JsonNode dataArray = rawResultNode.get("data");
+                if (dataArray != null && dataArray.isArray()) {
+                    dataArray.forEach(rawOffersList::add);
+                }
+            }
+
+            Set<String> airlineCodes = AmadeusMapper.carrierCodes(offers);
+
+            if (!airlineCodes.isEmpty()) {
+                airlineNames = airlines(String.join(",", airlineCodes));
+            }
+        }
+
+        return AmadeusMapper.toFlightOfferDTOs(offers, airlineNames, rawOffersList);
+    }
+
     @GetMapping("/airlines")
     public Map<String,String> airlines(@RequestParam String codes) throws ResponseException {
         var arr = amadeusConnect.airlines(codes);
@@ -189,7 +340,7 @@ public class ApiController {
         return map;
     }
 
-    @PostMapping("/api/flights/confirm")
+    @PostMapping("/flights/confirm")
     public ResponseEntity<?> confirm(@RequestBody Map<String, Object> body) {
         try {
             // Extract the offer regardless of shape (direct or wrapped in data[])
@@ -205,8 +356,26 @@ public class ApiController {
             com.google.gson.JsonObject offerJson =
                     gson.toJsonTree(offerObj).getAsJsonObject();
 
-            // Call the corrected helper (uses flightOffersSearch.pricing)
-            com.google.gson.JsonObject priced = amadeusConnect.priceOffer(offerJson);
+            // Offers shown converted are priced in the currency the traveler saw, not the search one
+            String pricingCurrency = offerJson.has(FxRates.PRICING_CURRENCY)
+                    ? offerJson.get(FxRates.PRICING_CURRENCY).getAsString() : null;
+
+            com.google.gson.JsonObject priced;
+            if (offerJson.has(RoundTripCombiner.FLIGHT_OFFERS)) {
+                // A combined round trip: reprice its one-way legs together
+                List<com.google.gson.JsonObject> legs = new ArrayList<>();
+                for (com.google.gson.JsonElement e : offerJson.getAsJsonArray(RoundTripCombiner.FLIGHT_OFFERS)) {
+                    com.google.gson.JsonObject leg = inPricingCurrency(e.getAsJsonObject(), pricingCurrency);
+                    if (leg == null) return offerUnavailable(pricingCurrency);
+                    legs.add(leg);
+                }
+                priced = amadeusConnect.priceOffers(legs);
+            } else {
+                com.google.gson.JsonObject offer = inPricingCurrency(offerJson, pricingCurrency);
+                if (offer == null) return offerUnavailable(pricingCurrency);
+                // Call the corrected helper (uses flightOffersSearch.pricing)
+                priced = amadeusConnect.priceOffer(offer);
+            }
 
             // Return as a plain Map so the front-end can read it
             Object asMap = objectMapper.readValue(priced.toString(), Object.class);
@@ -223,6 +392,23 @@ public class ApiController {
 
 
 
+    // The same offer searched in the pricing currency, or null if it is no longer offered in it
+    private com.google.gson.JsonObject inPricingCurrency(com.google.gson.JsonObject offer, String currency)
+            throws ResponseException {
+        if (currency == null) return offer;
+        com.google.gson.JsonObject price = offer.getAsJsonObject("price");
+        if (price != null && price.has("currency") && currency.equals(price.get("currency").getAsString())) {
+            return offer;
+        }
+        return currencyReshop.reshop(offer, currency);
+    }
+
+    private ResponseEntity<?> offerUnavailable(String currency) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("error", "Offer is no longer available", "details",
+                        "The selected flights could not be found again when searching in " + currency));
+    }
+
     @PostMapping("/traveler")
     public ResponseEntity<?> traveler(
             @Valid @RequestBody TravelerDTO dto,
@@ -265,4 +451,93 @@ public class ApiController {
                     .body(Map.of("error", "Failed to process order", "details", ex.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    @PostMapping("/watches")
+    public ResponseEntity<?> watch(
+            @Valid @RequestBody PriceWatchRequestDTO dto,
+            BindingResult br
+    ) {
+        if (br.hasErrors()) {
+            var errors = br.getFieldErrors().stream()
+                    .map(e -> e.getField() + ": " + e.getDefaultMessage())
+                    .toArray(String[]::new);
+            return ResponseEntity.badRequest().body(Map.of("errors", errors));
+        }
+
+        try {
+            LocalDate departDate = LocalDate.parse(dto.departDate);
+            if (departDate.isBefore(priceWatches.today())) {
+                return ResponseEntity.badRequest().body(Map.of("errors", new String[]{"departDate: must not be in the past"}));
+            }
+            WatchKey key = new WatchKey(dto.origin, dto.destination, departDate, dto.adults,
+                    dto.travelClass, dto.currencyCode);
+            int targetCents = dto.targetPrice != null ? Math.toIntExact(Math.round(dto.targetPrice * 100)) : 0;
+            if (dto.targetPrice != null && targetCents <= 0) {
+                return ResponseEntity.badRequest().body(Map.of("errors", new String[]{"targetPrice: must be greater than 0"}));
+            }
+            long id = priceWatches.watch(key, dto.subscriberId, targetCents);
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(Map.of("id", String.valueOf(id), "search", key.id()));
+        } catch (DateTimeParseException ex) {
+            return ResponseEntity.badRequest().body(Map.of("errors", new String[]{"departDate: " + ex.getMessage()}));
+        } catch (ArithmeticException ex) {
+            return ResponseEntity.badRequest().body(Map.of("errors", new String[]{"targetPrice: too large"}));
+        }
+    }
+
+    @DeleteMapping("/watches/{id}")
+    public ResponseEntity<?> unwatch(@PathVariable long id) {
+        if (priceWatches.unwatch(id)) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("error", "Unknown watch", "details", String.valueOf(id)));
+    }
+
+    @GetMapping("/fares/destinations")
+    public ResponseEntity<?> cheapestDestinations(
+            @RequestParam String origin,
+            @RequestParam(required = false) String month
+    ) {
+        try {
+            LocalDate today = fareCrawler.today();
+            YearMonth ym = month != null ? YearMonth.parse(month) : YearMonth.from(today);
+            List<FareIndex.Fare> fares = fareCrawler.index().cheapestDestinations(origin, ym, today);
+            return ResponseEntity.ok(toFareDTOs(fares));
+        } catch (DateTimeParseException ex) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Use month=yyyy-MM", "details", ex.getMessage()));
+        }
+    }
+
+    @GetMapping("/fares/dates")
+    public ResponseEntity<?> cheapestDates(
+            @RequestParam String origin,
+            @RequestParam String destination,
+            @RequestParam(required = false) String month
+    ) {
+        try {
+            LocalDate today = fareCrawler.today();
+            YearMonth ym = month != null ? YearMonth.parse(month) : YearMonth.from(today);
+            LocalDate from = ym.atDay(1).isBefore(today) ? today : ym.atDay(1);
+            List<FareIndex.Fare> fares = fareCrawler.index().cheapestDates(origin, destination, from, ym.atEndOfMonth());
+            return ResponseEntity.ok(toFareDTOs(fares));
+        } catch (DateTimeParseException ex) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Use month=yyyy-MM", "details", ex.getMessage()));
+        }
+    }
+
+    private List<FareDTO> toFareDTOs(List<FareIndex.Fare> fares) {
+        List<FareDTO> out = new ArrayList<>(fares.size());
+        for (FareIndex.Fare f : fares) {
+            FareDTO dto = new FareDTO();
+            dto.originCode = f.origin;
+            dto.destinationCode = f.destination;
+            dto.departureDate = f.date.toString();
+            dto.price = new PriceDTO();
+            dto.price.total = BigDecimal.valueOf(f.cents, 2).toPlainString();
+            dto.price.currency = fareCrawler.currencyCode();
+            out.add(dto);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,126 @@
+package com.airline.flightreservations.admission;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Decides which API requests get a servlet thread when the server is under pressure.
+ *
+ * Each {@link RequestClass} has its own adaptive concurrency limit. On top of that,
+ * lower-priority classes are shed early once the server as a whole passes their
+ * utilisation threshold, which keeps threads free for bookings and pricing.
+ */
+@Component
+public class AdmissionControl {
+
+    /** Outcome of {@link #admit}; {@code null} permit means "shed". */
+    public static final class Permit {
+        private final AdmissionControl owner;
+        private final ClassLimiter limiter;
+        private final long startNanos = System.nanoTime();
+
+        private Permit(AdmissionControl owner, ClassLimiter limiter) {
+            this.owner = owner;
+            this.limiter = limiter;
+        }
+
+        public void release() {
+            limiter.release(System.nanoTime() - startNanos);
+            owner.inflight.decrementAndGet();
+        }
+    }
+
+    private final Map<RequestClass, ClassLimiter> limiters = new EnumMap<>(RequestClass.class);
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final int capacity;
+    private final boolean enabled;
+
+    @Autowired
+    public AdmissionControl(
+            @Value("${admission.enabled:true}") boolean enabled,
+            @Value("${admission.capacity:${server.tomcat.threads.max:200}}") int capacity,
+            @Value("${admission.critical.max-limit:100}") int criticalMax,
+            @Value("${admission.critical.queue-size:50}") int criticalQueue,
+            @Value("${admission.critical.queue-timeout-ms:2000}") long criticalWaitMillis,
+            @Value("${admission.read.max-limit:100}") int readMax,
+            @Value("${admission.search.max-limit:60}") int searchMax,
+            @Value("${admission.search.retry-after-seconds:5}") int searchRetryAfter) {
+        this(enabled, capacity,
+                new ClassLimiter(new GradientLimit(criticalMax / 2, 4, criticalMax), criticalQueue, criticalWaitMillis, 1),
+                new ClassLimiter(new GradientLimit(readMax / 2, 4, readMax), 0, 0, 1),
+                new ClassLimiter(new GradientLimit(searchMax / 2, 2, searchMax), 0, 0, searchRetryAfter));
+    }
+
+    AdmissionControl(boolean enabled, int capacity, ClassLimiter critical, ClassLimiter read, ClassLimiter search) {
+        this.enabled = enabled;
+        this.capacity = Math.max(1, capacity);
+        limiters.put(RequestClass.CRITICAL, critical);
+        limiters.put(RequestClass.READ, read);
+        limiters.put(RequestClass.SEARCH, search);
+    }
+
+    /**
+     * Maps an API request to its class; {@code null} means it is never limited (health checks, non-API paths).
+     * {@code path} is the path within the application (servlet path plus path info), not the raw URI;
+     * path parameters and trailing slashes are ignored, as they are when the request is mapped to a handler.
+     */
+    public static RequestClass classify(String path) {
+        path = normalize(path);
+        if (path == null || !path.startsWith("/api/") || path.equals("/api/health")) return null;
+        if (path.equals("/api/flights/confirm") || path.startsWith("/api/bookings/") || path.equals("/api/traveler")) {
+            return RequestClass.CRITICAL;
+        }
+        if (path.equals("/api/flights") || path.equals("/api/flights/combinations") || path.equals("/api/locations")) {
+            return RequestClass.SEARCH;
+        }
+        return RequestClass.READ;
+    }
+
+    // "/api//flights;jsessionid=x/" -> "/api/flights"
+    static String normalize(String path) {
+        if (path == null) return null;
+        if (path.indexOf(';') >= 0) path = path.replaceAll(";[^/]*", "");
+        if (path.contains("//")) path = path.replaceAll("/{2,}", "/");
+        while (path.length() > 1 && path.endsWith("/")) path = path.substring(0, path.length() - 1);
+        return path;
+    }
+
+    public boolean isEnabled() { return enabled; }
+
+    /** Seconds a shed client should wait before retrying this class. */
+    public int retryAfterSeconds(RequestClass requestClass) {
+        return limiters.get(requestClass).retryAfterSeconds;
+    }
+
+    /**
+     * Tries to admit one request. May block briefly for classes with a queue.
+     * @return a permit that must be released when the request completes, or null if it was shed
+     */
+    public Permit admit(RequestClass requestClass) throws InterruptedException {
+        ClassLimiter limiter = limiters.get(requestClass);
+        if (inflight.get() >= capacity * requestClass.shedAtUtilisation) {
+            limiter.recordShed();
+            return null;
+        }
+        if (!limiter.tryAcquire()) return null;
+        inflight.incrementAndGet();
+        return new Permit(this, limiter);
+    }
+
+    /** Admitted, queued and shed counts, current limit and in-flight requests per class. */
+    public Map<String, Object> stats() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("inflight", inflight.get());
+        out.put("capacity", capacity);
+        for (Map.Entry<RequestClass, ClassLimiter> e : limiters.entrySet()) {
+            out.put(e.getKey().name().toLowerCase(), e.getValue().stats());
+        }
+        return out;
+    }
+}
@@ -0,0 +1,66 @@
+package com.airline.flightreservations.admission;
+
+import java.io.IOException;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/** Applies {@link AdmissionControl} before any API handler runs; shed requests get 503 + Retry-After. */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class AdmissionFilter extends OncePerRequestFilter {
+    private final AdmissionControl admission;
+
+    public AdmissionFilter(AdmissionControl admission) {
+        this.admission = admission;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // CORS preflights are cheap and must not be rejected, or the browser reports a CORS error instead
+        return !admission.isEnabled() || "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        // Servlet path + path info: decoded and without the context path, unlike the raw request URI
+        String path = request.getServletPath() + (request.getPathInfo() != null ? request.getPathInfo() : "");
+        RequestClass requestClass = AdmissionControl.classify(path);
+        if (requestClass == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        AdmissionControl.Permit permit;
+        try {
+            permit = admission.admit(requestClass);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            permit = null;
+        }
+
+        if (permit == null) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader("Retry-After", String.valueOf(admission.retryAfterSeconds(requestClass)));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Server busy\",\"details\":\"" + requestClass.name().toLowerCase()
+                    + " requests are temporarily shed, retry later\"}");
+            return;
+        }
+
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            permit.release();
+        }
+    }
+}
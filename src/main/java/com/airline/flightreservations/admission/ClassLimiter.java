@@ -0,0 +1,83 @@
+package com.airline.flightreservations.admission;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/** Concurrency limit, bounded wait queue and counters for one {@link RequestClass}. */
+final class ClassLimiter {
+    private final GradientLimit limit;
+    private final int maxQueue;
+    private final long maxWaitNanos;
+    final int retryAfterSeconds;
+
+    // Guarded by "this"
+    private int inflight;
+    private int waiting;
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+
+    ClassLimiter(GradientLimit limit, int maxQueue, long maxWaitMillis, int retryAfterSeconds) {
+        this.limit = limit;
+        this.maxQueue = Math.max(0, maxQueue);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxWaitMillis));
+        this.retryAfterSeconds = Math.max(1, retryAfterSeconds);
+    }
+
+    /** Takes a slot, waiting in the queue if this class has one; false means the request must be shed. */
+    synchronized boolean tryAcquire() throws InterruptedException {
+        if (inflight < limit.limit()) {
+            inflight++;
+            admitted.increment();
+            return true;
+        }
+        if (waiting >= maxQueue || maxWaitNanos == 0) {
+            shed.increment();
+            return false;
+        }
+
+        waiting++;
+        queued.increment();
+        try {
+            long deadline = System.nanoTime() + maxWaitNanos;
+            while (inflight >= limit.limit()) {
+                long left = deadline - System.nanoTime();
+                if (left <= 0) {
+                    shed.increment();
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, left);
+            }
+            inflight++;
+            admitted.increment();
+            return true;
+        } finally {
+            waiting--;
+        }
+    }
+
+    synchronized void release(long rttNanos) {
+        limit.onSample(rttNanos, inflight);
+        inflight--;
+        notifyAll();
+    }
+
+    /** Counted when the request never reached {@link #tryAcquire()} (shed on server utilisation). */
+    void recordShed() {
+        shed.increment();
+    }
+
+    synchronized Map<String, Object> stats() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("limit", limit.limit());
+        out.put("inflight", inflight);
+        out.put("waiting", waiting);
+        out.put("admitted", admitted.sum());
+        out.put("queued", queued.sum());
+        out.put("shed", shed.sum());
+        return out;
+    }
+}
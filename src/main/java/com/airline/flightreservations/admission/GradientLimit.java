@@ -0,0 +1,57 @@
+package com.airline.flightreservations.admission;
+
+/**
+ * Adaptive concurrency limit driven by the latency gradient.
+ *
+ * A slow moving average of request latency is the "no queueing" baseline; a fast one
+ * is what requests see right now. When the fast average rises above the baseline,
+ * requests are queueing somewhere and the limit shrinks proportionally; when they
+ * match, the limit grows by a small headroom (sqrt of the limit). Growth only happens
+ * while the limit is actually being used, so an idle class does not inflate it.
+ *
+ * Not thread-safe; {@link ClassLimiter} calls it under its own lock.
+ */
+final class GradientLimit {
+    private static final double TOLERANCE = 1.5;   // latency may grow this much before we back off
+    private static final double SMOOTHING = 0.2;
+    private static final double FAST_ALPHA = 2.0 / (10 + 1);
+    private static final double SLOW_ALPHA = 2.0 / (500 + 1);
+
+    private final int minLimit;
+    private final int maxLimit;
+    private double limit;
+    private double fastRtt;
+    private double slowRtt;
+
+    GradientLimit(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+    }
+
+    int limit() { return (int) limit; }
+
+    /** Records one completed request that ran with {@code inflight} requests in progress. */
+    void onSample(long rttNanos, int inflight) {
+        if (rttNanos <= 0) return;
+        if (slowRtt == 0) {
+            slowRtt = fastRtt = rttNanos;
+            return;
+        }
+        fastRtt += FAST_ALPHA * (rttNanos - fastRtt);
+        slowRtt += SLOW_ALPHA * (rttNanos - slowRtt);
+
+        // After a long overload the baseline itself drifts up; pull it back once things recover
+        if (slowRtt > fastRtt * 2) {
+            slowRtt = fastRtt * 2;
+        }
+
+        // App-limited: not enough traffic to learn anything about the limit
+        if (inflight < limit / 2) return;
+
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * slowRtt / fastRtt));
+        double target = limit * gradient + Math.sqrt(limit);
+        limit = limit * (1 - SMOOTHING) + target * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, limit));
+    }
+}
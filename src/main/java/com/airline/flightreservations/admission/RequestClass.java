@@ -0,0 +1,22 @@
+package com.airline.flightreservations.admission;
+
+/**
+ * Admission classes, highest priority first.
+ * Lower-priority classes start shedding at a lower server utilisation, so under
+ * overload searches go first, then cheap reads, and bookings/pricing last.
+ */
+public enum RequestClass {
+    /** Bookings, pricing, traveler validation: money is on the line. Queues briefly instead of shedding. */
+    CRITICAL(1.0),
+    /** Cheap reads mostly served from memory (airports, airlines, fares, watches). */
+    READ(0.85),
+    /** Expensive upstream searches (flights, locations). */
+    SEARCH(0.6);
+
+    /** Fraction of total server capacity in use at which this class is shed regardless of its own limit. */
+    final double shedAtUtilisation;
+
+    RequestClass(double shedAtUtilisation) {
+        this.shedAtUtilisation = shedAtUtilisation;
+    }
+}
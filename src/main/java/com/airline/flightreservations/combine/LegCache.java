@@ -0,0 +1,258 @@
+package com.airline.flightreservations.combine;
+
+import com.airline.flightreservations.dto.FlightOfferDTO;
+import com.airline.flightreservations.dto.SegmentDTO;
+import com.airline.flightreservations.watch.WatchKey;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recent one-way search results. They are the legs round trips are assembled from and,
+ * with {@code combine.cache-searches}, also answer repeated one-way searches; that is
+ * off by default since a cached search can show fares up to {@code combine.ttl} old.
+ *
+ * Keyed by the normalized search ({@link WatchKey}), whose currency is the one the
+ * search ran in upstream (see {@code FxRates}); only adult-only searches are
+ * cached since the key does not carry children or infants. Entries expire after
+ * {@code combine.ttl} and the least recently used one is evicted beyond
+ * {@code combine.max-legs}.
+ *
+ * A miss stores the pending fetch, so concurrent misses on the same search (a popular
+ * route right after expiry) share one upstream call; a failed fetch is removed again.
+ */
+@Component
+public class LegCache {
+
+    /** Fetches the offers of a one-way search from upstream. */
+    @FunctionalInterface
+    public interface Loader {
+        List<FlightOfferDTO> load(WatchKey key, int maxResults) throws Exception;
+    }
+
+    /** One cached one-way result set, cheapest first, with the join inputs precomputed. */
+    public static final class Leg {
+        static final long UNKNOWN = Long.MIN_VALUE;
+
+        final List<FlightOfferDTO> offers;
+        final int[] cents;
+        final long[] departMinute;   // local departure of the first segment, minutes since epoch
+        final long[] arriveMinute;   // local arrival of the last segment
+        final long fetchedAt;
+        final int fetchedMax;        // the "max" the upstream search asked for
+
+        Leg(List<FlightOfferDTO> offers, long fetchedAt, int fetchedMax) {
+            List<FlightOfferDTO> priced = new ArrayList<>(offers.size());
+            for (FlightOfferDTO o : offers) {
+                if (priceCents(o) >= 0) priced.add(o);
+            }
+            priced.sort(Comparator.comparingInt(LegCache::priceCents));
+
+            this.offers = priced;
+            this.cents = new int[priced.size()];
+            this.departMinute = new long[priced.size()];
+            this.arriveMinute = new long[priced.size()];
+            for (int i = 0; i < cents.length; i++) {
+                FlightOfferDTO o = priced.get(i);
+                cents[i] = priceCents(o);
+                List<SegmentDTO> segments = o.itineraries != null && !o.itineraries.isEmpty()
+                        ? o.itineraries.get(0).segments : null;
+                boolean known = segments != null && !segments.isEmpty();
+                departMinute[i] = known ? minute(segments.get(0).departureAt) : UNKNOWN;
+                arriveMinute[i] = known ? minute(segments.get(segments.size() - 1).arrivalAt) : UNKNOWN;
+            }
+            this.fetchedAt = fetchedAt;
+            this.fetchedMax = fetchedMax;
+        }
+
+        public int size() { return offers.size(); }
+
+        /** Whether this leg holds everything a search for {@code maxResults} offers would return. */
+        public boolean covers(int maxResults) { return fetchedMax >= maxResults; }
+
+        /** The cheapest {@code maxResults} offers. */
+        public List<FlightOfferDTO> offers(int maxResults) {
+            return List.copyOf(offers.subList(0, Math.min(maxResults, offers.size())));
+        }
+    }
+
+    private final Clock clock;
+    private final long ttlMillis;
+    private final int maxLegs;
+    private final int fetchSize;
+    private final Duration minStay;
+    private final boolean cacheSearches;
+    private final Map<WatchKey, CompletableFuture<Leg>> legs;   // guarded by this, access order; includes fetches in flight
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder sharedFetches = new LongAdder();
+
+    @Autowired
+    public LegCache(
+            @Value("${combine.ttl:PT10M}") Duration ttl,
+            @Value("${combine.max-legs:2000}") int maxLegs,
+            @Value("${combine.fetch-size:50}") int fetchSize,
+            @Value("${combine.min-stay:PT2H}") Duration minStay,
+            @Value("${combine.cache-searches:false}") boolean cacheSearches) {
+        this(Clock.systemUTC(), ttl, maxLegs, fetchSize, minStay, cacheSearches);
+    }
+
+    LegCache(Clock clock, Duration ttl, int maxLegs, int fetchSize, Duration minStay, boolean cacheSearches) {
+        this.clock = clock;
+        this.ttlMillis = ttl.toMillis();
+        this.maxLegs = Math.max(1, maxLegs);
+        this.fetchSize = fetchSize;
+        this.minStay = minStay;
+        this.cacheSearches = cacheSearches;
+        this.legs = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<WatchKey, CompletableFuture<Leg>> eldest) {
+                return size() > LegCache.this.maxLegs;
+            }
+        };
+    }
+
+    /**
+     * The cached leg if it holds at least {@code maxResults} offers, else fetched through
+     * {@code loader} and cached. Concurrent callers missing the same key wait for one
+     * fetch; if it fails, they all get its exception and the next call fetches again.
+     */
+    public Leg getOrLoad(WatchKey key, int maxResults, Loader loader) throws Exception {
+        while (true) {
+            CompletableFuture<Leg> pending;
+            boolean fetch = false;
+            synchronized (this) {
+                pending = legs.get(key);
+                Leg leg = completed(pending);
+                if (leg != null && clock.millis() - leg.fetchedAt > ttlMillis) {
+                    leg = null;
+                    pending = null;
+                }
+                if (leg != null && leg.covers(maxResults)) {
+                    hits.increment();
+                    return leg;
+                }
+                if (pending == null || leg != null) {
+                    // Nothing usable: this caller fetches, later ones wait on its future
+                    pending = new CompletableFuture<>();
+                    legs.put(key, pending);
+                    misses.increment();
+                    fetch = true;
+                } else {
+                    sharedFetches.increment();
+                }
+            }
+
+            if (fetch) {
+                try {
+                    Leg leg = new Leg(loader.load(key, maxResults), clock.millis(), maxResults);
+                    pending.complete(leg);
+                    return leg;
+                } catch (Exception | Error ex) {
+                    synchronized (this) {
+                        legs.remove(key, pending);
+                    }
+                    pending.completeExceptionally(ex);
+                    throw ex;
+                }
+            }
+
+            Leg leg = await(pending);
+            if (leg.covers(maxResults)) return leg;
+            // The shared fetch asked for fewer offers than this caller needs; fetch again
+        }
+    }
+
+    /** The cached leg, or null if it was never fetched, is still being fetched or has expired. */
+    synchronized Leg get(WatchKey key) {
+        Leg leg = completed(legs.get(key));
+        if (leg != null && clock.millis() - leg.fetchedAt > ttlMillis) {
+            legs.remove(key);
+            leg = null;
+        }
+        if (leg == null) misses.increment();
+        else hits.increment();
+        return leg;
+    }
+
+    Leg put(WatchKey key, List<FlightOfferDTO> offers, int fetchedMax) {
+        Leg leg = new Leg(offers, clock.millis(), fetchedMax);
+        synchronized (this) {
+            legs.put(key, CompletableFuture.completedFuture(leg));
+        }
+        return leg;
+    }
+
+    /** How many one-way offers to request when a leg has to be fetched. */
+    public int fetchSize() { return fetchSize; }
+
+    /** Shortest gap allowed between the outbound arrival and the return departure. */
+    public Duration minStay() { return minStay; }
+
+    /** Whether plain one-way searches are answered from the cache, not only round-trip legs. */
+    public boolean cachesSearches() { return cacheSearches; }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        synchronized (this) {
+            out.put("legs", legs.size());
+        }
+        out.put("hits", hits.sum());
+        out.put("misses", misses.sum());
+        out.put("sharedFetches", sharedFetches.sum());
+        return out;
+    }
+
+    // The leg of a successfully finished fetch, else null (missing, in flight or failed)
+    private static Leg completed(CompletableFuture<Leg> future) {
+        return future != null && future.isDone() && !future.isCompletedExceptionally() ? future.join() : null;
+    }
+
+    private static Leg await(CompletableFuture<Leg> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof Exception) throw (Exception) cause;
+            throw (Error) cause;
+        }
+    }
+
+    static int priceCents(FlightOfferDTO offer) {
+        if (offer == null || offer.price == null || offer.price.total == null) return -1;
+        try {
+            return new BigDecimal(offer.price.total).setScale(2, RoundingMode.HALF_UP).unscaledValue().intValueExact();
+        } catch (ArithmeticException | NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    // Segment times are airport-local. For a round trip the outbound arrival and the return
+    // departure are at the same airport, so they compare exactly; open-jaw gaps are approximate.
+    private static long minute(String at) {
+        if (at == null) return Leg.UNKNOWN;
+        try {
+            return LocalDateTime.parse(at).toEpochSecond(ZoneOffset.UTC) / 60;
+        } catch (DateTimeParseException ex) {
+            return Leg.UNKNOWN;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.airline.flightreservations.combine;
+
+import com.airline.flightreservations.dto.FlightOfferDTO;
+import com.airline.flightreservations.dto.ItineraryDTO;
+import com.airline.flightreservations.dto.PriceDTO;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Builds round-trip (or open-jaw) offers by pairing two cached one-way legs.
+ *
+ * Both legs are sorted by price, so the cheapest pairs come out of a frontier walk:
+ * start at (0, 0) and, for each popped pair, push its right neighbour and, on the
+ * first column only, the one below. Every pair is reached exactly once and in total
+ * price order, so producing K results costs O(K log K) pops instead of pricing the
+ * full cross product. Pairs that fail the stay check are skipped but still expanded.
+ *
+ * Combined prices are the sum of the one-way fares; the fare is only authoritative
+ * once the chosen combination has been repriced through the confirm endpoint, which
+ * prices both one-way offers in a single request.
+ */
+public final class RoundTripCombiner {
+
+    /** rawOffer of a combination: the one-way offers to price together. */
+    public static final String FLIGHT_OFFERS = "flightOffers";
+
+    private RoundTripCombiner() {}
+
+    public static List<FlightOfferDTO> combine(LegCache.Leg outbound, LegCache.Leg inbound, int limit, Duration minStay) {
+        int[][] pairs = cheapestPairs(outbound, inbound, limit, minStay.toMinutes());
+        List<FlightOfferDTO> out = new ArrayList<>(pairs.length);
+        for (int[] p : pairs) {
+            out.add(merge(outbound.offers.get(p[0]), inbound.offers.get(p[1]), outbound.cents[p[0]] + inbound.cents[p[1]]));
+        }
+        return out;
+    }
+
+    /** Indexes {outbound, inbound} of the {@code limit} cheapest compatible pairs, cheapest first. */
+    static int[][] cheapestPairs(LegCache.Leg outbound, LegCache.Leg inbound, int limit, long minStayMinutes) {
+        int n = outbound.cents.length, m = inbound.cents.length;
+        if (limit <= 0 || n == 0 || m == 0) return new int[0][];
+
+        // {total, i, j}; ties broken by position so the order is deterministic
+        PriorityQueue<int[]> frontier = new PriorityQueue<>((a, b) ->
+                a[0] != b[0] ? Integer.compare(a[0], b[0]) : a[1] != b[1] ? Integer.compare(a[1], b[1]) : Integer.compare(a[2], b[2]));
+        frontier.add(new int[]{outbound.cents[0] + inbound.cents[0], 0, 0});
+
+        List<int[]> chosen = new ArrayList<>(Math.min(limit, n * m));
+        while (!frontier.isEmpty() && chosen.size() < limit) {
+            int[] top = frontier.poll();
+            int i = top[1], j = top[2];
+            if (compatible(outbound, i, inbound, j, minStayMinutes)) {
+                chosen.add(new int[]{i, j});
+            }
+            if (j + 1 < m) frontier.add(new int[]{outbound.cents[i] + inbound.cents[j + 1], i, j + 1});
+            if (j == 0 && i + 1 < n) frontier.add(new int[]{outbound.cents[i + 1] + inbound.cents[0], i + 1, 0});
+        }
+        return chosen.toArray(new int[0][]);
+    }
+
+    private static boolean compatible(LegCache.Leg outbound, int i, LegCache.Leg inbound, int j, long minStayMinutes) {
+        long arrive = outbound.arriveMinute[i];
+        long depart = inbound.departMinute[j];
+        if (arrive == LegCache.Leg.UNKNOWN || depart == LegCache.Leg.UNKNOWN) return true;
+        return depart - arrive >= minStayMinutes;
+    }
+
+    private static FlightOfferDTO merge(FlightOfferDTO outbound, FlightOfferDTO inbound, int cents) {
+        FlightOfferDTO dto = new FlightOfferDTO();
+        dto.id = outbound.id + "+" + inbound.id;
+
+        dto.price = new PriceDTO();
+        dto.price.total = BigDecimal.valueOf(cents, 2).toPlainString();
+        dto.price.currency = outbound.price.currency;
+
+        Set<String> validating = new LinkedHashSet<>();
+        if (outbound.validatingAirlines != null) validating.addAll(outbound.validatingAirlines);
+        if (inbound.validatingAirlines != null) validating.addAll(inbound.validatingAirlines);
+        dto.validatingAirlines = validating.isEmpty() ? null : new ArrayList<>(validating);
+
+        List<ItineraryDTO> itineraries = new ArrayList<>(2);
+        if (outbound.itineraries != null) itineraries.addAll(outbound.itineraries);
+        if (inbound.itineraries != null) itineraries.addAll(inbound.itineraries);
+        dto.itineraries = itineraries;
+
+        if (outbound.rawOffer != null && inbound.rawOffer != null) {
+            ObjectNode raw = JsonNodeFactory.instance.objectNode();
+            ArrayNode offers = raw.putArray(FLIGHT_OFFERS);
+            offers.add(outbound.rawOffer);
+            offers.add(inbound.rawOffer);
+            dto.rawOffer = raw;
+        }
+
+        // Summary fields describe the outbound journey, as for regular offers
+        dto.airlineName = outbound.airlineName;
+        dto.carrierCode = outbound.carrierCode;
+        dto.flightNumber = outbound.flightNumber;
+        dto.cabin = outbound.cabin;
+        dto.numberOfStops = outbound.numberOfStops;
+        dto.duration = outbound.duration;
+        dto.originCode = outbound.originCode;
+        dto.destinationCode = outbound.destinationCode;
+        dto.departureTime = outbound.departureTime;
+        dto.arrivalTime = outbound.arrivalTime;
+        return dto;
+    }
+}
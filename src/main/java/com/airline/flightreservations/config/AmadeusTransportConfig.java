@@ -0,0 +1,28 @@
+package com.airline.flightreservations.config;
+
+import com.airline.flightreservations.transport.AmadeusTransport;
+import com.airline.flightreservations.transport.PooledHttpTransport;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class AmadeusTransportConfig {
+
+    // amadeus.transport=sdk (or any other AmadeusTransport bean) replaces the pooled default
+    @Bean
+    @ConditionalOnMissingBean(AmadeusTransport.class)
+    @ConditionalOnProperty(name = "amadeus.transport", havingValue = "pooled", matchIfMissing = true)
+    public AmadeusTransport amadeusTransport(
+            @Value("${amadeus.pool.max-connections:32}") int maxConnections,
+            @Value("${amadeus.pool.connect-timeout:PT5S}") Duration connectTimeout,
+            @Value("${amadeus.pool.request-timeout:PT30S}") Duration requestTimeout,
+            @Value("${amadeus.pool.acquire-timeout-ms:2000}") long acquireTimeoutMillis,
+            @Value("${amadeus.pool.http2:true}") boolean http2) {
+        return new PooledHttpTransport(maxConnections, connectTimeout, requestTimeout,
+                acquireTimeoutMillis, http2);
+    }
+}
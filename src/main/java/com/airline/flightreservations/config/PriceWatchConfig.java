@@ -0,0 +1,19 @@
+package com.airline.flightreservations.config;
+
+import com.airline.flightreservations.watch.InMemoryPriceWatchSink;
+import com.airline.flightreservations.watch.PriceWatchSink;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class PriceWatchConfig {
+
+    // Falls back to the in-process sink until a real notification channel is defined as a bean
+    @Bean
+    @ConditionalOnMissingBean(PriceWatchSink.class)
+    public PriceWatchSink priceWatchSink(@Value("${watch.sink-capacity:10000}") int capacity) {
+        return new InMemoryPriceWatchSink(capacity);
+    }
+}
@@ -0,0 +1,12 @@
+package com.airline.flightreservations.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/** Precomputed cheapest fare for one route and date (Recommended section, fare calendars) */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FareDTO {
+    public String originCode;       // "JFK"
+    public String destinationCode;  // "MIA"
+    public String departureDate;    // "2026-11-14"
+    public PriceDTO price;          // cheapest one-adult total, indicative until priced
+}
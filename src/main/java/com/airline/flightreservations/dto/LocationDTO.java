@@ -11,4 +11,5 @@ public class LocationDTO {
     public String countryCode;  // "US"
     public Double latitude;     // 29.98695
     public Double longitude;    // -95.34222
+    public Double distanceKm;   // 12.4, only on /api/airports/nearby results
 }
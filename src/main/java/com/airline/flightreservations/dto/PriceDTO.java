@@ -5,6 +5,8 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 /** Compact price info */
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class PriceDTO {
-    public String currency; // "USD"
-    public String total;    // "312.45"
+    public String currency;      // "USD"
+    public String total;         // "312.45"
+    public String convertedFrom; // "USD", set only on prices converted locally from the search currency
+    public String fxAsOf;        // "2026-10-19T16:00:00Z", publication time of the rate used
 }
@@ -0,0 +1,34 @@
+package com.airline.flightreservations.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Positive;
+
+/** Subscribe to price drops on one route and date */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PriceWatchRequestDTO {
+    @NotNull public Long subscriberId;                 // our user id
+
+    @NotBlank
+    @Pattern(regexp="^[A-Za-z]{3}$", message="IATA code (e.g., JFK)")
+    public String origin;                              // "JFK"
+    @NotBlank
+    @Pattern(regexp="^[A-Za-z]{3}$", message="IATA code (e.g., LAX)")
+    public String destination;                         // "LAX"
+    @NotBlank
+    @Pattern(regexp="\\d{4}-\\d{2}-\\d{2}", message="Use yyyy-MM-dd")
+    public String departDate;                          // "2026-12-01"
+
+    @Min(1) public int adults = 1;
+    public String travelClass;                         // "ECONOMY" (any cabin if null)
+    @Pattern(regexp="^[A-Za-z]{3}$", message="ISO 4217 (e.g., USD)")
+    public String currencyCode;                        // "USD" (default if null)
+    @Positive
+    @DecimalMax(value="1000000", message="must be at most 1000000")
+    public Double targetPrice;                         // notify only at or below this; any drop if null
+}
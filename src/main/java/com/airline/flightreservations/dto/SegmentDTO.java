@@ -5,12 +5,17 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 /** One flight leg between two airports */
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class SegmentDTO {
+    public String id;              // "1", matches travelerPricings fare details
     public String carrierCode;     // "UA"
     public String flightNumber;    // "1234"
+    public String aircraftCode;    // "73H"
     public String departureIata;   // "HOU"
+    public String departureTerminal; // "B"
     public String departureAt;     // ISO-8601
     public String arrivalIata;     // "JFK"
+    public String arrivalTerminal; // "4"
     public String arrivalAt;       // ISO-8601
     public String duration;        // "PT3H25M"
     public Integer numberOfStops;  // 0, 1, ...
+    public String cabin;           // "ECONOMY", for the first traveler
 }
@@ -0,0 +1,116 @@
+package com.airline.flightreservations.fares;
+
+import com.airline.flightreservations.watch.FarePoller;
+import com.airline.flightreservations.watch.WatchKey;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.OptionalDouble;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps {@link FareIndex} warm for the configured popular routes.
+ *
+ * Runs one upstream search per tick, with the tick derived from the request budget,
+ * and walks route x date in a fixed round-robin order so every cell is refreshed
+ * once per cycle. Cells are updated in place; the index is never rebuilt.
+ */
+@Component
+public class FareCrawler {
+    private static final Logger log = LoggerFactory.getLogger(FareCrawler.class);
+
+    private final FareIndex index;
+    private final FarePoller poller;
+    private final Clock clock;
+    private final String currencyCode;
+    private final boolean enabled;
+    private final long tickMillis;
+
+    private int cursor;                     // next route x day-offset to refresh; crawler thread only
+    private ScheduledExecutorService ticker;
+
+    @Autowired
+    public FareCrawler(
+            FarePoller poller,
+            @Value("${fares.routes:}") List<String> routes,
+            @Value("${fares.days-ahead:60}") int daysAhead,
+            @Value("${fares.requests-per-minute:10}") int requestsPerMinute,
+            @Value("${fares.currency:USD}") String currencyCode,
+            @Value("${fares.enabled:true}") boolean enabled) {
+        this(new FareIndex(routes, daysAhead), poller, Clock.systemUTC(), currencyCode,
+                enabled, 60_000L / Math.max(1, requestsPerMinute));
+    }
+
+    FareCrawler(FareIndex index, FarePoller poller, Clock clock, String currencyCode,
+                boolean enabled, long tickMillis) {
+        this.index = index;
+        this.poller = poller;
+        this.clock = clock;
+        this.currencyCode = currencyCode;
+        this.enabled = enabled;
+        this.tickMillis = tickMillis;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled || index.routeCount() == 0) return;
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "fare-crawler");
+            t.setDaemon(true);
+            return t;
+        });
+        ticker.scheduleWithFixedDelay(this::safeCrawlNext, 0, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (ticker != null) ticker.shutdownNow();
+    }
+
+    public FareIndex index() { return index; }
+
+    public String currencyCode() { return currencyCode; }
+
+    /** Today in the crawler's (UTC) clock, the day the index's date offsets count from. */
+    public LocalDate today() { return LocalDate.now(clock); }
+
+    long tickMillis() { return tickMillis; }
+
+    /** Refreshes the next cell in round-robin order. */
+    void crawlNext() {
+        int cells = index.routeCount() * index.horizonDays();
+        if (cells == 0) return;
+        int next = cursor;
+        cursor = (cursor + 1) % cells;
+
+        int route = next / index.horizonDays();
+        LocalDate date = today().plusDays(next % index.horizonDays());
+        WatchKey key = new WatchKey(index.origin(route), index.destination(route), date, 1, null, currencyCode);
+        try {
+            OptionalDouble cheapest = poller.cheapest(key);
+            index.put(route, date, cheapest.isPresent() ? (int) Math.round(cheapest.getAsDouble() * 100) : 0);
+        } catch (Exception ex) {
+            // Keep the previous value; it is refreshed again next cycle
+            log.debug("Fare crawl failed for {}: {}", key, ex.getMessage());
+        }
+    }
+
+    private void safeCrawlNext() {
+        try {
+            crawlNext();
+        } catch (RuntimeException ex) {
+            log.warn("Fare crawler tick failed", ex);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.airline.flightreservations.fares;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Route x date -> cheapest fare, in flat primitive arrays.
+ *
+ * The route set is fixed at construction. Dates live in a ring of {@code horizonDays}
+ * cells per route keyed by epoch day, so the index rolls forward on its own: a cell
+ * whose stored day does not match the requested day is simply empty.
+ * Each write also refreshes the cheapest day of its month, so month queries read one
+ * cell per route instead of scanning the month.
+ *
+ * One writer (the crawler) and any number of readers. Each cell is a single long
+ * ({@code epochDay << 32 | cents}) in an atomic array, so a reader sees either the old
+ * or the new fare of a cell together with its date, never one without the other. The
+ * month minimum is its own atomic long, written after the cell, so it can lag a write
+ * by one read; across cells a reader may see a mix of older and newer prices, which
+ * is fine for a "from" price.
+ */
+public final class FareIndex {
+
+    /** One indexed cheapest fare. */
+    public static final class Fare {
+        public final String origin;
+        public final String destination;
+        public final LocalDate date;
+        public final int cents;
+
+        Fare(String origin, String destination, LocalDate date, int cents) {
+            this.origin = origin;
+            this.destination = destination;
+            this.date = date;
+            this.cents = cents;
+        }
+    }
+
+    private final String[] origins;
+    private final String[] destinations;
+    private final Map<String, Integer> routeIds = new HashMap<>();
+    private final Map<String, int[]> routesByOrigin = new HashMap<>();
+    private final int horizonDays;
+    private final AtomicLongArray cells;     // [route * horizonDays + epochDay % horizonDays] = epochDay << 32 | cents, 0 if none
+    private final int monthSlots;
+    private final AtomicLongArray monthBest; // [route * monthSlots + month % monthSlots] = epochDay << 32 | cents, 0 if none
+
+    /** @param routes "JFK-LAX" style pairs; duplicates are ignored */
+    public FareIndex(List<String> routes, int horizonDays) {
+        Map<String, String[]> unique = new LinkedHashMap<>();
+        for (String r : routes) {
+            String[] parts = r.trim().toUpperCase(Locale.ROOT).split("-");
+            if (parts.length == 2 && !parts[0].isBlank() && !parts[1].isBlank()) {
+                unique.putIfAbsent(parts[0].trim() + "-" + parts[1].trim(), new String[]{parts[0].trim(), parts[1].trim()});
+            }
+        }
+        this.origins = new String[unique.size()];
+        this.destinations = new String[unique.size()];
+        Map<String, List<Integer>> byOrigin = new HashMap<>();
+        int i = 0;
+        for (Map.Entry<String, String[]> e : unique.entrySet()) {
+            origins[i] = e.getValue()[0];
+            destinations[i] = e.getValue()[1];
+            routeIds.put(e.getKey(), i);
+            byOrigin.computeIfAbsent(origins[i], k -> new ArrayList<>()).add(i);
+            i++;
+        }
+        byOrigin.forEach((o, ids) -> routesByOrigin.put(o, ids.stream().mapToInt(Integer::intValue).toArray()));
+
+        this.horizonDays = Math.max(1, horizonDays);
+        this.cells = new AtomicLongArray(origins.length * this.horizonDays);
+        this.monthSlots = this.horizonDays / 28 + 2;
+        this.monthBest = new AtomicLongArray(origins.length * monthSlots);
+    }
+
+    public int routeCount() { return origins.length; }
+    public int horizonDays() { return horizonDays; }
+    public String origin(int route) { return origins[route]; }
+    public String destination(int route) { return destinations[route]; }
+
+    /** Records the cheapest fare for one route and date; {@code fareCents <= 0} clears it (nothing sold). */
+    public void put(int route, LocalDate date, int fareCents) {
+        long day = date.toEpochDay();
+        cells.set(cell(route, day), fareCents > 0 ? pack(day, fareCents) : 0);
+        refreshMonth(route, YearMonth.from(date));
+    }
+
+    /** Cheapest fare on one route and date, or 0 if unknown. */
+    public int get(int route, LocalDate date) {
+        long day = date.toEpochDay();
+        long packed = cells.get(cell(route, day));
+        return packed != 0 && packed >> 32 == day ? (int) packed : 0;
+    }
+
+    /** Known fares for origin -> destination within [from, to], in date order. */
+    public List<Fare> cheapestDates(String origin, String destination, LocalDate from, LocalDate to) {
+        Integer route = routeIds.get(origin.toUpperCase(Locale.ROOT) + "-" + destination.toUpperCase(Locale.ROOT));
+        if (route == null) return List.of();
+        List<Fare> out = new ArrayList<>();
+        for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+            int c = get(route, d);
+            if (c > 0) out.add(new Fare(origins[route], destinations[route], d, c));
+        }
+        return out;
+    }
+
+    /**
+     * For every destination indexed from {@code origin}, its cheapest fare in {@code month}
+     * on or after {@code notBefore}, cheapest first.
+     */
+    public List<Fare> cheapestDestinations(String origin, YearMonth month, LocalDate notBefore) {
+        int[] routes = routesByOrigin.get(origin.toUpperCase(Locale.ROOT));
+        if (routes == null) return List.of();
+        LocalDate first = month.atDay(1).isBefore(notBefore) ? notBefore : month.atDay(1);
+        List<Fare> out = new ArrayList<>(routes.length);
+        for (int route : routes) {
+            long best = monthBest.get(monthCell(route, month));
+            LocalDate bestDate = best != 0 ? LocalDate.ofEpochDay(best >> 32) : null;
+            if (bestDate == null || !YearMonth.from(bestDate).equals(month)) continue;
+            if (bestDate.isBefore(first)) {
+                // The month's cheapest day already passed; fall back to the remaining days
+                Fare f = scan(route, first, month.atEndOfMonth());
+                if (f != null) out.add(f);
+            } else {
+                out.add(new Fare(origins[route], destinations[route], bestDate, (int) best));
+            }
+        }
+        out.sort((a, b) -> Integer.compare(a.cents, b.cents));
+        return Collections.unmodifiableList(out);
+    }
+
+    private Fare scan(int route, LocalDate from, LocalDate to) {
+        int best = 0;
+        LocalDate bestDate = null;
+        for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+            int c = get(route, d);
+            if (c > 0 && (best == 0 || c < best)) {
+                best = c;
+                bestDate = d;
+            }
+        }
+        return best > 0 ? new Fare(origins[route], destinations[route], bestDate, best) : null;
+    }
+
+    private void refreshMonth(int route, YearMonth month) {
+        long best = 0;
+        for (int d = 1; d <= month.lengthOfMonth(); d++) {
+            long day = month.atDay(d).toEpochDay();
+            long packed = cells.get(cell(route, day));
+            if (packed != 0 && packed >> 32 == day && (best == 0 || (int) packed < (int) best)) {
+                best = packed;
+            }
+        }
+        monthBest.set(monthCell(route, month), best);
+    }
+
+    // fareCents > 0, so a packed cell is never 0 (the empty marker), even on epoch day 0
+    private static long pack(long epochDay, int fareCents) {
+        return (epochDay << 32) | fareCents;
+    }
+
+    private int monthCell(int route, YearMonth month) {
+        long ordinal = month.getYear() * 12L + month.getMonthValue() - 1;
+        return route * monthSlots + (int) Math.floorMod(ordinal, (long) monthSlots);
+    }
+
+    private int cell(int route, long epochDay) {
+        return route * horizonDays + (int) Math.floorMod(epochDay, (long) horizonDays);
+    }
+}
@@ -0,0 +1,143 @@
+package com.airline.flightreservations.fx;
+
+import com.airline.flightreservations.AmadeusConnect;
+import com.amadeus.exceptions.ResponseException;
+import com.amadeus.resources.FlightOfferSearch;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Finds the same flights again, searched in the currency the traveler asked for.
+ *
+ * Amadeus prices an offer in the currency it was searched in, so an offer found in
+ * the base currency and shown converted cannot be priced in the requested one. At
+ * confirm time the offer's search is repeated in the requested currency and the offer
+ * flying the same segments (and fare bases, when possible) is priced instead.
+ */
+@Component
+public class CurrencyReshop {
+    private final AmadeusConnect amadeusConnect;
+    private final int maxResults;
+
+    public CurrencyReshop(
+            AmadeusConnect amadeusConnect,
+            @Value("${fx.reshop-max-results:100}") int maxResults) {
+        this.amadeusConnect = amadeusConnect;
+        this.maxResults = maxResults;
+    }
+
+    /** The matching raw offer priced in {@code currency}, or null if it is no longer offered. */
+    public JsonObject reshop(JsonObject rawOffer, String currency) throws ResponseException {
+        JsonArray itineraries = rawOffer.getAsJsonArray("itineraries");
+        if (itineraries == null || itineraries.size() == 0) return null;
+        JsonArray outbound = segments(itineraries.get(0));
+        if (outbound.size() == 0) return null;
+
+        String origin = at(outbound.get(0), "departure", "iataCode");
+        String destination = at(outbound.get(outbound.size() - 1), "arrival", "iataCode");
+        String departDate = date(at(outbound.get(0), "departure", "at"));
+        String returnDate = null;
+        if (itineraries.size() > 1 && segments(itineraries.get(1)).size() > 0) {
+            returnDate = date(at(segments(itineraries.get(1)).get(0), "departure", "at"));
+        }
+        if (origin == null || destination == null || departDate == null) return null;
+
+        int adults = 0, children = 0, infants = 0;
+        JsonArray travelers = rawOffer.getAsJsonArray("travelerPricings");
+        if (travelers != null) {
+            for (JsonElement t : travelers) {
+                String type = string(t.getAsJsonObject(), "travelerType");
+                if ("CHILD".equals(type)) children++;
+                else if ("HELD_INFANT".equals(type)) infants++;
+                else adults++;
+            }
+        }
+        String cabin = commonCabin(travelers);
+
+        FlightOfferSearch[] offers = amadeusConnect.flights(origin, destination, departDate,
+                String.valueOf(Math.max(1, adults)), children, infants, returnDate, cabin, currency, maxResults);
+        if (offers == null || offers.length == 0 || offers[0].getResponse() == null) return null;
+        JsonArray data = offers[0].getResponse().getResult().getAsJsonArray("data");
+        if (data == null) return null;
+
+        String flights = flightSignature(rawOffer);
+        String fares = fareSignature(rawOffer);
+        JsonObject sameFlights = null;
+        for (JsonElement e : data) {
+            JsonObject candidate = e.getAsJsonObject();
+            if (!flights.equals(flightSignature(candidate))) continue;
+            if (fares.equals(fareSignature(candidate))) return candidate;
+            if (sameFlights == null) sameFlights = candidate; // results are cheapest first
+        }
+        return sameFlights;
+    }
+
+    // carrier + flight number + departure time of every segment, in order
+    static String flightSignature(JsonObject offer) {
+        StringBuilder sb = new StringBuilder();
+        JsonArray itineraries = offer.getAsJsonArray("itineraries");
+        if (itineraries == null) return "";
+        for (JsonElement itinerary : itineraries) {
+            for (JsonElement segment : segments(itinerary)) {
+                JsonObject s = segment.getAsJsonObject();
+                sb.append(string(s, "carrierCode")).append(string(s, "number"))
+                        .append('@').append(at(s, "departure", "at")).append('|');
+            }
+            sb.append('/');
+        }
+        return sb.toString();
+    }
+
+    // fare basis per segment of the first traveler
+    static String fareSignature(JsonObject offer) {
+        StringBuilder sb = new StringBuilder();
+        JsonArray travelers = offer.getAsJsonArray("travelerPricings");
+        if (travelers == null || travelers.size() == 0) return "";
+        JsonArray details = travelers.get(0).getAsJsonObject().getAsJsonArray("fareDetailsBySegment");
+        if (details == null) return "";
+        for (JsonElement d : details) {
+            sb.append(string(d.getAsJsonObject(), "fareBasis")).append('|');
+        }
+        return sb.toString();
+    }
+
+    // The cabin of every segment when they all share one; a mixed-cabin offer is searched without
+    // a cabin, since the search applies it to every segment and would filter the offer out
+    private static String commonCabin(JsonArray travelers) {
+        if (travelers == null) return null;
+        String cabin = null;
+        for (JsonElement t : travelers) {
+            JsonArray details = t.getAsJsonObject().getAsJsonArray("fareDetailsBySegment");
+            if (details == null) return null;
+            for (JsonElement d : details) {
+                String c = string(d.getAsJsonObject(), "cabin");
+                if (c == null || (cabin != null && !cabin.equals(c))) return null;
+                cabin = c;
+            }
+        }
+        return cabin;
+    }
+
+    private static JsonArray segments(JsonElement itinerary) {
+        JsonArray segments = itinerary.isJsonObject() ? itinerary.getAsJsonObject().getAsJsonArray("segments") : null;
+        return segments != null ? segments : new JsonArray();
+    }
+
+    private static String at(JsonElement segment, String end, String field) {
+        JsonObject s = segment.getAsJsonObject();
+        return s.has(end) && s.get(end).isJsonObject() ? string(s.getAsJsonObject(end), field) : null;
+    }
+
+    private static String date(String dateTime) {
+        return dateTime != null && dateTime.length() >= 10 ? dateTime.substring(0, 10) : null;
+    }
+
+    private static String string(JsonObject o, String field) {
+        JsonElement e = o.get(field);
+        return e != null && e.isJsonPrimitive() ? e.getAsString() : null;
+    }
+}
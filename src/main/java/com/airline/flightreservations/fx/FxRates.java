@@ -0,0 +1,250 @@
+package com.airline.flightreservations.fx;
+
+import com.airline.flightreservations.dto.FlightOfferDTO;
+import com.airline.flightreservations.dto.PriceDTO;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Local FX conversion so flight searches can run (and be cached) in one base currency.
+ *
+ * Rates come from {@code fx.rates-file}, a properties file written by whatever job
+ * fetches them:
+ * <pre>
+ * base=USD
+ * asOf=2026-10-19T16:00:00Z
+ * EUR=0.9214
+ * GBP=0.7702
+ * </pre>
+ * The file is re-read every {@code fx.refresh-interval} when it has changed. A table
+ * older than {@code fx.max-age} (by its {@code asOf}) is not used: searches then go
+ * upstream in the requested currency, exactly as without FX. {@code asOf} is required;
+ * the file's modification time says nothing about when the rates were published.
+ *
+ * Converted prices are indicative. The offer keeps the currency it is to be priced in,
+ * and confirm re-shops it in that currency, so the fare a traveler pays is never one
+ * we converted.
+ */
+@Component
+public class FxRates {
+    private static final Logger log = LoggerFactory.getLogger(FxRates.class);
+
+    /** Set on converted raw offers: the currency confirm must price in. */
+    public static final String PRICING_CURRENCY = "pricingCurrency";
+
+    private final String ratesFile;
+    private final String baseCurrency;
+    private final Duration maxAge;
+    private final long refreshMillis;
+    private final Clock clock;
+
+    private volatile FxTable table;         // null until a file was loaded
+    private long fileModified;              // refresh thread only
+    private final LongAdder reloadFailures = new LongAdder();
+    private ScheduledExecutorService refresher;
+
+    @Autowired
+    public FxRates(
+            @Value("${fx.rates-file:}") String ratesFile,
+            @Value("${fx.base-currency:USD}") String baseCurrency,
+            @Value("${fx.max-age:P4D}") Duration maxAge,
+            @Value("${fx.refresh-interval:PT1H}") Duration refreshInterval) {
+        this(ratesFile, baseCurrency, maxAge, refreshInterval, Clock.systemUTC());
+    }
+
+    FxRates(String ratesFile, String baseCurrency, Duration maxAge, Duration refreshInterval, Clock clock) {
+        this.ratesFile = ratesFile;
+        this.baseCurrency = baseCurrency.trim().toUpperCase(Locale.ROOT);
+        this.maxAge = maxAge;
+        this.refreshMillis = Math.max(1_000L, refreshInterval.toMillis());
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    void start() {
+        if (ratesFile.isBlank()) return; // no rate file: every search stays in its own currency
+        safeReload();
+        refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "fx-rates");
+            t.setDaemon(true);
+            return t;
+        });
+        refresher.scheduleWithFixedDelay(this::safeReload, refreshMillis, refreshMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (refresher != null) refresher.shutdownNow();
+    }
+
+    /**
+     * Currency to search upstream in for a request in {@code requested}: the base
+     * currency when a fresh table can convert to {@code requested}, else {@code requested}.
+     */
+    public String searchCurrency(String requested) {
+        String currency = normalize(requested);
+        FxTable t = usableTable();
+        return t != null && t.has(currency) ? t.base : currency;
+    }
+
+    /**
+     * Copies of the offers priced in {@code requested}. Offers already in that currency,
+     * or when no fresh table covers it, are returned as they are.
+     */
+    public List<FlightOfferDTO> convert(List<FlightOfferDTO> offers, String requested) {
+        String currency = normalize(requested);
+        FxTable t = usableTable();
+        if (t == null || !t.has(currency)) return offers;
+
+        List<FlightOfferDTO> out = new ArrayList<>(offers.size());
+        for (FlightOfferDTO offer : offers) {
+            if (offer.price == null || currency.equals(offer.price.currency) || !t.base.equals(offer.price.currency)) {
+                out.add(offer);
+                continue;
+            }
+            out.add(convert(offer, currency, t));
+        }
+        return out;
+    }
+
+    public Map<String, Object> stats() {
+        FxTable t = table;
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("enabled", !ratesFile.isBlank());
+        out.put("base", t != null ? t.base : baseCurrency);
+        out.put("asOf", t != null ? t.asOf.toString() : null);
+        out.put("ageSeconds", t != null ? Duration.between(t.asOf, clock.instant()).getSeconds() : null);
+        out.put("fresh", usableTable() != null);
+        out.put("currencies", t != null ? t.size() : 0);
+        out.put("reloadFailures", reloadFailures.sum());
+        return out;
+    }
+
+    /** Re-reads the rate file if it changed since the last load. */
+    void reload() throws IOException {
+        Path file = Paths.get(ratesFile);
+        long modified = Files.getLastModifiedTime(file).toMillis();
+        if (table != null && modified == fileModified) return;
+
+        Properties props = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            props.load(reader);
+        }
+        FxTable loaded = parse(props);
+        if (!loaded.base.equals(baseCurrency)) {
+            throw new IOException("Rate file base " + loaded.base + " does not match fx.base-currency " + baseCurrency);
+        }
+        table = loaded;
+        fileModified = modified;
+        log.info("Loaded {} FX rates for base {} as of {}", loaded.size(), loaded.base, loaded.asOf);
+    }
+
+    static FxTable parse(Properties props) throws IOException {
+        String base = props.getProperty("base");
+        if (base == null || base.isBlank()) throw new IOException("Rate file has no base currency");
+        String asOfValue = props.getProperty("asOf");
+        if (asOfValue == null || asOfValue.isBlank()) throw new IOException("Rate file has no asOf");
+        Instant asOf;
+        try {
+            asOf = Instant.parse(asOfValue.trim());
+        } catch (DateTimeParseException ex) {
+            throw new IOException("Rate file asOf is not an ISO instant: " + asOfValue);
+        }
+
+        Map<String, BigDecimal> rates = new HashMap<>();
+        for (String name : props.stringPropertyNames()) {
+            if (name.equals("base") || name.equals("asOf")) continue;
+            String code = name.trim().toUpperCase(Locale.ROOT);
+            try {
+                BigDecimal rate = new BigDecimal(props.getProperty(name).trim());
+                if (code.matches("[A-Z]{3}") && rate.signum() > 0) rates.put(code, rate);
+            } catch (NumberFormatException ex) {
+                log.warn("Ignoring FX rate {}={}", name, props.getProperty(name));
+            }
+        }
+        return new FxTable(base.trim().toUpperCase(Locale.ROOT), asOf, rates);
+    }
+
+    private FxTable usableTable() {
+        FxTable t = table;
+        if (t == null || Duration.between(t.asOf, clock.instant()).compareTo(maxAge) > 0) return null;
+        return t;
+    }
+
+    private void safeReload() {
+        try {
+            reload();
+        } catch (IOException | RuntimeException ex) {
+            // Keep the previous table; it stops being used once it is older than fx.max-age
+            reloadFailures.increment();
+            log.warn("FX rate reload from {} failed: {}", ratesFile, ex.getMessage());
+        }
+    }
+
+    private static FlightOfferDTO convert(FlightOfferDTO offer, String currency, FxTable t) {
+        FlightOfferDTO dto = new FlightOfferDTO();
+        dto.id = offer.id;
+        dto.validatingAirlines = offer.validatingAirlines;
+        dto.itineraries = offer.itineraries;
+        dto.airlineName = offer.airlineName;
+        dto.carrierCode = offer.carrierCode;
+        dto.flightNumber = offer.flightNumber;
+        dto.cabin = offer.cabin;
+        dto.numberOfStops = offer.numberOfStops;
+        dto.duration = offer.duration;
+        dto.originCode = offer.originCode;
+        dto.destinationCode = offer.destinationCode;
+        dto.departureTime = offer.departureTime;
+        dto.arrivalTime = offer.arrivalTime;
+
+        dto.price = new PriceDTO();
+        dto.price.currency = currency;
+        dto.price.total = t.fromBase(new BigDecimal(offer.price.total), currency).toPlainString();
+        dto.price.convertedFrom = offer.price.currency;
+        dto.price.fxAsOf = t.asOf.toString();
+
+        // The offer itself stays in the base currency; confirm re-shops it in the requested one
+        if (offer.rawOffer instanceof ObjectNode) {
+            ObjectNode raw = ((ObjectNode) offer.rawOffer).deepCopy();
+            raw.put(PRICING_CURRENCY, currency);
+            dto.rawOffer = raw;
+        } else {
+            dto.rawOffer = offer.rawOffer;
+        }
+        return dto;
+    }
+
+    private static String normalize(String currency) {
+        return currency == null || currency.isBlank() ? "USD" : currency.trim().toUpperCase(Locale.ROOT);
+    }
+}
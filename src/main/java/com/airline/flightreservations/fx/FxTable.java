@@ -0,0 +1,45 @@
+package com.airline.flightreservations.fx;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.Currency;
+import java.util.Map;
+
+/**
+ * One loaded rate table: units of each currency per one unit of the base currency,
+ * as of a given instant. Immutable; {@link FxRates} swaps in a new one on reload.
+ */
+public final class FxTable {
+    public final String base;               // "USD"
+    public final Instant asOf;              // when the rates were published
+    private final Map<String, BigDecimal> rates;
+
+    FxTable(String base, Instant asOf, Map<String, BigDecimal> rates) {
+        this.base = base;
+        this.asOf = asOf;
+        this.rates = Map.copyOf(rates);
+    }
+
+    public boolean has(String currency) {
+        return base.equals(currency) || rates.containsKey(currency);
+    }
+
+    public int size() { return rates.size(); }
+
+    /** Converts an amount in the base currency, rounded to the target currency's minor unit. */
+    public BigDecimal fromBase(BigDecimal amount, String currency) {
+        BigDecimal rate = base.equals(currency) ? BigDecimal.ONE : rates.get(currency);
+        if (rate == null) throw new IllegalArgumentException("No rate for " + currency);
+        return amount.multiply(rate).setScale(fractionDigits(currency), RoundingMode.HALF_UP);
+    }
+
+    private static int fractionDigits(String currency) {
+        try {
+            int digits = Currency.getInstance(currency).getDefaultFractionDigits();
+            return digits < 0 ? 2 : digits;
+        } catch (IllegalArgumentException ex) {
+            return 2;
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.airline.flightreservations.geo;
+
+import com.airline.flightreservations.dto.LocationDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Immutable k-d tree over airport positions for nearest-airport queries.
+ *
+ * Airports are stored as unit vectors on the sphere rather than lat/lon, so there is
+ * no special case at the antimeridian or the poles: straight-line (chord) distance
+ * between unit vectors orders points exactly like great-circle distance, and the
+ * tree prunes on plain per-axis differences. Only the final hits are converted back
+ * to kilometres.
+ *
+ * The tree is implicit: node {@code m} of range {@code [lo, hi)} is its median and the
+ * two halves are its subtrees, so a query touches a few flat arrays and nothing else.
+ * Instances are never modified after {@link #build}; {@link NearbyAirports} swaps in a
+ * new one on rebuild.
+ */
+public final class AirportGeoIndex {
+    static final double EARTH_RADIUS_KM = 6371.0088;
+
+    /** One query result. */
+    public static final class Hit {
+        public final LocationDTO airport;
+        public final double distanceKm;
+
+        Hit(LocationDTO airport, double distanceKm) {
+            this.airport = airport;
+            this.distanceKm = distanceKm;
+        }
+    }
+
+    private final LocationDTO[] airports;  // tree order
+    private final double[] xyz;            // unit vector of airports[i] at [3i, 3i+3)
+    private final byte[] splitAxis;        // axis the node at i splits on
+
+    private AirportGeoIndex(LocationDTO[] airports, double[] xyz, byte[] splitAxis) {
+        this.airports = airports;
+        this.xyz = xyz;
+        this.splitAxis = splitAxis;
+    }
+
+    /** Builds an index over the airports that have coordinates; the others are skipped. */
+    public static AirportGeoIndex build(Collection<LocationDTO> source) {
+        List<LocationDTO> usable = new ArrayList<>(source.size());
+        for (LocationDTO a : source) {
+            if (a != null && a.latitude != null && a.longitude != null) usable.add(a);
+        }
+        int n = usable.size();
+        double[] points = new double[n * 3];
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            toUnitVector(usable.get(i).latitude, usable.get(i).longitude, points, i * 3);
+            order[i] = i;
+        }
+
+        byte[] axes = new byte[n];
+        arrange(points, order, axes, 0, n);
+
+        LocationDTO[] airports = new LocationDTO[n];
+        double[] xyz = new double[n * 3];
+        for (int i = 0; i < n; i++) {
+            airports[i] = usable.get(order[i]);
+            System.arraycopy(points, order[i] * 3, xyz, i * 3, 3);
+        }
+        return new AirportGeoIndex(airports, xyz, axes);
+    }
+
+    public int size() { return airports.length; }
+
+    /**
+     * Up to {@code limit} airports within {@code radiusKm} of the point, nearest first.
+     * Distances are great-circle distances on a spherical Earth.
+     */
+    public List<Hit> nearest(double latitude, double longitude, double radiusKm, int limit) {
+        if (limit <= 0 || airports.length == 0 || !(radiusKm > 0)) return List.of();
+        double[] q = new double[3];
+        toUnitVector(latitude, longitude, q, 0);
+
+        // Chord length of the radius; anything beyond half the circumference covers the globe
+        double halfAngle = Math.min(radiusKm / (2 * EARTH_RADIUS_KM), Math.PI / 2);
+        double chord = 2 * Math.sin(halfAngle);
+        Search search = new Search(q, Math.min(limit, airports.length), chord * chord * (1 + 1e-12));
+        search(search, 0, airports.length);
+
+        // The heap pops farthest first, so fill from the back
+        Hit[] hits = new Hit[search.size];
+        for (int i = hits.length - 1; i >= 0; i--) {
+            hits[i] = new Hit(airports[search.nodes[0]], chordToKm(search.dist2[0]));
+            search.pop();
+        }
+        return Arrays.asList(hits);
+    }
+
+    private void search(Search s, int lo, int hi) {
+        while (lo < hi) {
+            int m = (lo + hi) >>> 1;
+            int base = m * 3;
+            double dx = s.q[0] - xyz[base];
+            double dy = s.q[1] - xyz[base + 1];
+            double dz = s.q[2] - xyz[base + 2];
+            double d2 = dx * dx + dy * dy + dz * dz;
+            if (d2 <= s.bound()) s.offer(m, d2);
+
+            int axis = splitAxis[m];
+            double diff = s.q[axis] - xyz[base + axis];
+            if (diff < 0) {
+                search(s, lo, m);
+                if (diff * diff > s.bound()) return;
+                lo = m + 1;
+            } else {
+                search(s, m + 1, hi);
+                if (diff * diff > s.bound()) return;
+                hi = m;
+            }
+        }
+    }
+
+    /** Bounded max-heap of the best candidates so far, keyed on squared chord length. */
+    private static final class Search {
+        final double[] q;
+        final int[] nodes;
+        final double[] dist2;
+        final double radius2;
+        int size;
+
+        Search(double[] q, int capacity, double radius2) {
+            this.q = q;
+            this.nodes = new int[capacity];
+            this.dist2 = new double[capacity];
+            this.radius2 = radius2;
+        }
+
+        double bound() {
+            return size == nodes.length ? Math.min(radius2, dist2[0]) : radius2;
+        }
+
+        void offer(int node, double d2) {
+            if (size < nodes.length) {
+                int i = size++;
+                while (i > 0) {
+                    int parent = (i - 1) >>> 1;
+                    if (dist2[parent] >= d2) break;
+                    nodes[i] = nodes[parent];
+                    dist2[i] = dist2[parent];
+                    i = parent;
+                }
+                nodes[i] = node;
+                dist2[i] = d2;
+            } else if (d2 < dist2[0]) {
+                siftDown(node, d2);
+            }
+        }
+
+        void pop() {
+            size--;
+            if (size > 0) {
+                int lastNode = nodes[size];
+                double lastDist = dist2[size];
+                siftDown(lastNode, lastDist);
+            }
+        }
+
+        private void siftDown(int node, double d2) {
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) break;
+                if (child + 1 < size && dist2[child + 1] > dist2[child]) child++;
+                if (dist2[child] <= d2) break;
+                nodes[i] = nodes[child];
+                dist2[i] = dist2[child];
+                i = child;
+            }
+            nodes[i] = node;
+            dist2[i] = d2;
+        }
+    }
+
+    // Puts the median of [lo, hi) on the widest axis at the middle, then recurses into both halves
+    private static void arrange(double[] points, int[] order, byte[] axes, int lo, int hi) {
+        if (hi - lo <= 0) return;
+        int m = (lo + hi) >>> 1;
+        int axis = widestAxis(points, order, lo, hi);
+        select(points, order, axis, lo, hi - 1, m);
+        axes[m] = (byte) axis;
+        arrange(points, order, axes, lo, m);
+        arrange(points, order, axes, m + 1, hi);
+    }
+
+    private static int widestAxis(double[] points, int[] order, int lo, int hi) {
+        int best = 0;
+        double bestSpread = -1;
+        for (int axis = 0; axis < 3; axis++) {
+            double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+            for (int i = lo; i < hi; i++) {
+                double v = points[order[i] * 3 + axis];
+                if (v < min) min = v;
+                if (v > max) max = v;
+            }
+            if (max - min > bestSpread) {
+                bestSpread = max - min;
+                best = axis;
+            }
+        }
+        return best;
+    }
+
+    // Quickselect over order[left..right] so order[k] holds the k-th smallest on the axis
+    private static void select(double[] points, int[] order, int axis, int left, int right, int k) {
+        while (left < right) {
+            double pivot = points[order[(left + right) >>> 1] * 3 + axis];
+            int i = left, j = right;
+            while (i <= j) {
+                while (points[order[i] * 3 + axis] < pivot) i++;
+                while (points[order[j] * 3 + axis] > pivot) j--;
+                if (i <= j) {
+                    int t = order[i];
+                    order[i] = order[j];
+                    order[j] = t;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) right = j;
+            else if (k >= i) left = i;
+            else return;
+        }
+    }
+
+    private static void toUnitVector(double latitude, double longitude, double[] out, int offset) {
+        double lat = Math.toRadians(latitude);
+        double lon = Math.toRadians(longitude);
+        double cosLat = Math.cos(lat);
+        out[offset] = cosLat * Math.cos(lon);
+        out[offset + 1] = cosLat * Math.sin(lon);
+        out[offset + 2] = Math.sin(lat);
+    }
+
+    static double chordToKm(double chord2) {
+        double half = Math.sqrt(chord2) / 2;
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, half));
+    }
+
+    /** Haversine distance, for callers (and tests) that have two coordinates at hand. */
+    static double greatCircleKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+}
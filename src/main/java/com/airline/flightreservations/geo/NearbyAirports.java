@@ -0,0 +1,220 @@
+package com.airline.flightreservations.geo;
+
+import com.airline.flightreservations.dto.LocationDTO;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Serves nearest-airport queries from an {@link AirportGeoIndex}.
+ *
+ * The index is built from the bundled {@code airports.csv} (or {@code geo.airports-file}
+ * when set) plus every airport that has come back from an Amadeus location search.
+ * The bundled file is a snapshot of about a hundred major airports only: regional
+ * airports are missing until a location search returns them, so deployments that need
+ * complete answers should point {@code geo.airports-file} at a full list.
+ * Rebuilds run on a background thread and publish the new index through a volatile
+ * field, so queries never wait for one and always see a complete tree.
+ */
+@Component
+public class NearbyAirports {
+    private static final Logger log = LoggerFactory.getLogger(NearbyAirports.class);
+    private static final String BUNDLED = "/airports.csv";
+
+    private final String airportsFile;
+    private final long rebuildMillis;
+    private final double defaultRadiusKm;
+    private final Map<String, LocationDTO> learned = new ConcurrentHashMap<>();
+    private volatile boolean dirty = true;
+    private volatile AirportGeoIndex index = AirportGeoIndex.build(List.of());
+    private long fileModified;              // rebuild thread only
+    private ScheduledExecutorService rebuilder;
+
+    @Autowired
+    public NearbyAirports(
+            @Value("${geo.airports-file:}") String airportsFile,
+            @Value("${geo.rebuild-interval:PT15M}") Duration rebuildInterval,
+            @Value("${geo.default-radius-km:150}") double defaultRadiusKm) {
+        this.airportsFile = airportsFile;
+        this.rebuildMillis = Math.max(1_000L, rebuildInterval.toMillis());
+        this.defaultRadiusKm = defaultRadiusKm;
+    }
+
+    @PostConstruct
+    void start() {
+        rebuilder = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "airport-index");
+            t.setDaemon(true);
+            return t;
+        });
+        rebuilder.scheduleWithFixedDelay(this::safeRebuild, 0, rebuildMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (rebuilder != null) rebuilder.shutdownNow();
+    }
+
+    /**
+     * Airports within {@code radiusKm} of the point, nearest first, each a copy of the
+     * indexed location with {@code distanceKm} filled in.
+     */
+    public List<LocationDTO> nearest(double latitude, double longitude, double radiusKm, int limit) {
+        List<AirportGeoIndex.Hit> hits = index.nearest(latitude, longitude, radiusKm, limit);
+        List<LocationDTO> out = new ArrayList<>(hits.size());
+        for (AirportGeoIndex.Hit hit : hits) {
+            LocationDTO dto = new LocationDTO();
+            dto.iataCode = hit.airport.iataCode;
+            dto.name = hit.airport.name;
+            dto.city = hit.airport.city;
+            dto.countryCode = hit.airport.countryCode;
+            dto.latitude = hit.airport.latitude;
+            dto.longitude = hit.airport.longitude;
+            dto.distanceKm = Math.round(hit.distanceKm * 10) / 10.0;
+            out.add(dto);
+        }
+        return out;
+    }
+
+    /** Remembers airports seen in upstream location results; picked up by the next rebuild. */
+    public void learn(Collection<LocationDTO> locations) {
+        for (LocationDTO loc : locations) {
+            if (loc == null || loc.iataCode == null || loc.latitude == null || loc.longitude == null) continue;
+            LocationDTO previous = learned.put(loc.iataCode.toUpperCase(Locale.ROOT), loc);
+            if (previous == null || !Objects.equals(previous.latitude, loc.latitude)
+                    || !Objects.equals(previous.longitude, loc.longitude)) {
+                dirty = true;
+            }
+        }
+    }
+
+    public int size() { return index.size(); }
+
+    /** Search radius used when a nearby query does not give one. */
+    public double defaultRadiusKm() { return defaultRadiusKm; }
+
+    /** Rebuilds when new airports were learned or the airports file changed. */
+    void rebuild() throws IOException {
+        Path file = airportsFile.isBlank() ? null : Paths.get(airportsFile);
+        long modified = file != null && Files.exists(file) ? Files.getLastModifiedTime(file).toMillis() : 0L;
+        if (!dirty && modified == fileModified) return;
+        dirty = false;
+
+        Map<String, LocationDTO> airports = new LinkedHashMap<>();
+        if (file != null && modified != 0L) {
+            try (InputStream in = Files.newInputStream(file)) {
+                readCsv(in, airports);
+            }
+        } else {
+            try (InputStream in = NearbyAirports.class.getResourceAsStream(BUNDLED)) {
+                if (in != null) readCsv(in, airports);
+            }
+        }
+        airports.putAll(learned); // upstream data wins over the bundled snapshot
+        fileModified = modified;
+
+        AirportGeoIndex next = AirportGeoIndex.build(airports.values());
+        index = next;
+        log.debug("Airport index rebuilt with {} airports", next.size());
+    }
+
+    private void safeRebuild() {
+        try {
+            rebuild();
+        } catch (IOException | RuntimeException ex) {
+            // Keep serving the previous index
+            log.warn("Airport index rebuild failed: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * {@code iata,name,city,country,latitude,longitude}; '#' lines and the header are skipped.
+     * Fields may be double-quoted ({@code "Paris, Charles de Gaulle"}, {@code ""} for a quote).
+     * Rows that still do not parse, or whose coordinates are out of range, are skipped and
+     * counted in one warning.
+     *
+     * @return the number of skipped rows
+     */
+    static int readCsv(InputStream in, Map<String, LocationDTO> into) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        int skipped = 0;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank() || line.startsWith("#") || line.startsWith("iata,")) continue;
+            List<String> f = fields(line);
+            if (f == null || f.size() != 6 || f.get(0).isBlank()) {
+                skipped++;
+                continue;
+            }
+            try {
+                LocationDTO dto = new LocationDTO();
+                dto.iataCode = f.get(0).trim().toUpperCase(Locale.ROOT);
+                dto.name = f.get(1).trim();
+                dto.city = f.get(2).trim();
+                dto.countryCode = f.get(3).trim();
+                dto.latitude = Double.parseDouble(f.get(4).trim());
+                dto.longitude = Double.parseDouble(f.get(5).trim());
+                if (!(Math.abs(dto.latitude) <= 90 && Math.abs(dto.longitude) <= 180)) {
+                    skipped++;
+                    continue;
+                }
+                into.put(dto.iataCode, dto);
+            } catch (NumberFormatException ex) {
+                skipped++;
+            }
+        }
+        if (skipped > 0) log.warn("Skipped {} malformed airport rows", skipped);
+        return skipped;
+    }
+
+    // The comma-separated fields of one line, or null if a quoted field is not closed
+    private static List<String> fields(String line) {
+        List<String> out = new ArrayList<>(6);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') field.append(c);
+                else if (i + 1 < line.length() && line.charAt(i + 1) == '"') field.append(line.charAt(++i));
+                else quoted = false;
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                out.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) return null;
+        out.add(field.toString());
+        return out;
+    }
+}
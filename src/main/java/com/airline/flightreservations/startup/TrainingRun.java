@@ -0,0 +1,97 @@
+package com.airline.flightreservations.startup;
+
+import com.airline.flightreservations.FlightReservationsApplication;
+import com.sun.net.httpserver.HttpServer;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Training run for the AppCDS archive built by {@code mvn -Pcds package}.
+ *
+ * {@link #main} starts a {@link TrainingUpstream} stub and the application pointed at it.
+ * Once the application is ready it requests {@code startup.training-paths} on its own
+ * port, so the classes a first successful request needs (MVC, Jackson, the Amadeus SDK
+ * and Gson models, our mapping) are loaded and end up in the class list, then shuts the
+ * application down, exiting with 1 if any request did not answer 200. In the paths,
+ * {departDate} and {returnDate} stand for dates 30 and 37 days ahead, so the searches
+ * never ask for a day in the past.
+ */
+@Component
+@ConditionalOnProperty(name = "startup.training-run", havingValue = "true")
+public class TrainingRun {
+    private static final Logger log = LoggerFactory.getLogger(TrainingRun.class);
+
+    private final List<String> paths;
+
+    public TrainingRun(@Value("${startup.training-paths:/api/health}") List<String> paths) {
+        this.paths = paths;
+    }
+
+    /** The application against a local stub upstream, training enabled; other arguments pass through. */
+    public static void main(String[] args) throws Exception {
+        HttpServer upstream = TrainingUpstream.start();
+        List<String> training = new ArrayList<>(List.of(
+                "--startup.training-run=true",
+                "--amadeus.api-key=training",
+                "--amadeus.api-secret=training",
+                "--amadeus.host=localhost",
+                "--amadeus.port=" + upstream.getAddress().getPort(),
+                "--amadeus.ssl=false",
+                "--amadeus.pool.http2=false"));
+        training.addAll(Arrays.asList(args));
+        SpringApplication.run(FlightReservationsApplication.class, training.toArray(new String[0]));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void run(ApplicationReadyEvent event) {
+        ConfigurableApplicationContext context = event.getApplicationContext();
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        LocalDate today = LocalDate.now(Clock.systemUTC());
+        int failed = 0;
+
+        for (String path : paths) {
+            String resolved = path.trim()
+                    .replace("{departDate}", today.plusDays(30).toString())
+                    .replace("{returnDate}", today.plusDays(37).toString());
+            try {
+                HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + resolved))
+                        .timeout(Duration.ofSeconds(30))
+                        .build();
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    log.info("Training request {} -> 200", resolved);
+                } else {
+                    log.error("Training request {} -> {}", resolved, response.statusCode());
+                    failed++;
+                }
+            } catch (Exception ex) {
+                log.error("Training request {} failed: {}", resolved, ex.getMessage());
+                failed++;
+            }
+        }
+        // A non-zero exit fails the build rather than dumping an archive of error paths
+        int exitCode = failed == 0 ? 0 : 1;
+        System.exit(SpringApplication.exit(context, () -> exitCode));
+    }
+}
@@ -0,0 +1,75 @@
+package com.airline.flightreservations.startup;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A local stand-in for the Amadeus endpoints a search needs: the token, flight offers and
+ * airline names. Every search gets one nonstop offer on the searched route and date, so
+ * the training run and the startup benchmark walk the whole success path (SDK models,
+ * mapping, JSON output) without leaving the machine.
+ */
+final class TrainingUpstream {
+
+    private static final String OFFER = "{\"type\":\"flight-offer\",\"id\":\"1\",\"validatingAirlineCodes\":[\"UA\"],"
+            + "\"price\":{\"currency\":\"%4$s\",\"total\":\"212.40\",\"base\":\"180.00\"},"
+            + "\"itineraries\":[{\"duration\":\"PT6H5M\",\"segments\":["
+            + "{\"id\":\"1\",\"carrierCode\":\"UA\",\"number\":\"523\",\"aircraft\":{\"code\":\"789\"},\"duration\":\"PT6H5M\",\"numberOfStops\":0,"
+            + "\"departure\":{\"iataCode\":\"%1$s\",\"terminal\":\"7\",\"at\":\"%3$sT08:00:00\"},"
+            + "\"arrival\":{\"iataCode\":\"%2$s\",\"terminal\":\"7\",\"at\":\"%3$sT11:05:00\"}}]}],"
+            + "\"travelerPricings\":[{\"travelerId\":\"1\",\"travelerType\":\"ADULT\","
+            + "\"price\":{\"currency\":\"%4$s\",\"total\":\"212.40\"},"
+            + "\"fareDetailsBySegment\":[{\"segmentId\":\"1\",\"cabin\":\"ECONOMY\",\"fareBasis\":\"KAA7AFEN\"}]}]}";
+
+    private TrainingUpstream() {
+    }
+
+    /** Starts the stub on a free local port; stop it with {@link HttpServer#stop(int)}. */
+    static HttpServer start() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/v1/security/oauth2/token", ex ->
+                reply(ex, "{\"access_token\":\"tr41n\",\"token_type\":\"Bearer\",\"expires_in\":1799}"));
+        server.createContext("/v2/shopping/flight-offers", ex -> {
+            Map<String, String> query = query(ex.getRequestURI().getRawQuery());
+            String offer = String.format(OFFER, query.getOrDefault("originLocationCode", "JFK"),
+                    query.getOrDefault("destinationLocationCode", "LAX"),
+                    query.getOrDefault("departureDate", "2026-01-01"),
+                    query.getOrDefault("currencyCode", "USD"));
+            reply(ex, "{\"meta\":{\"count\":1},\"data\":[" + offer + "]}");
+        });
+        server.createContext("/v1/reference-data/airlines", ex ->
+                reply(ex, "{\"data\":[{\"type\":\"airline\",\"iataCode\":\"UA\",\"businessName\":\"UNITED AIRLINES\"}]}"));
+        server.start();
+        return server;
+    }
+
+    private static Map<String, String> query(String raw) {
+        Map<String, String> out = new HashMap<>();
+        if (raw == null) return out;
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                out.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return out;
+    }
+
+    private static void reply(HttpExchange ex, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "application/vnd.amadeus+json");
+        ex.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.airline.flightreservations.transport;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * HTTP transport used for every Amadeus API call, including the OAuth token request.
+ * Replaces the SDK's built-in one-connection-per-call {@code HttpURLConnection} usage.
+ */
+public interface AmadeusTransport extends AutoCloseable {
+
+    /** Status, content type and body of one upstream response. */
+    final class Result {
+        public final int status;
+        public final String contentType;
+        public final String body;
+
+        public Result(int status, String contentType, String body) {
+            this.status = status;
+            this.contentType = contentType;
+            this.body = body;
+        }
+    }
+
+    /**
+     * Sends one request.
+     * @param body request body, or null for none
+     * @throws IOException if no response was received (connect failure, timeout, pool exhausted)
+     */
+    Result send(String method, String uri, Map<String, String> headers, String body) throws IOException;
+
+    /** Pool utilisation, connection reuse and request counters, for the metrics endpoint. */
+    Map<String, Object> stats();
+
+    @Override
+    default void close() {}
+}
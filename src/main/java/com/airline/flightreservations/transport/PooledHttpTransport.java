@@ -0,0 +1,155 @@
+package com.airline.flightreservations.transport;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import javax.net.ssl.SSLSession;
+
+/**
+ * {@link AmadeusTransport} on the JDK {@link HttpClient}: pooled keep-alive
+ * connections, HTTP/2 negotiated through ALPN where the server offers it (one
+ * multiplexed connection), HTTP/1.1 otherwise.
+ *
+ * A semaphore caps concurrent upstream requests at {@code maxConnections}, so a burst
+ * waits briefly for a connection instead of opening an unbounded number of them; since
+ * a connection only returns to the JDK pool when its request completes, that also caps
+ * the connections this client opens. How long idle connections stay open is JVM-wide
+ * in the JDK client ({@code -Djdk.httpclient.keepalive.timeout}, seconds, default 1200)
+ * and is left to the launch command rather than set from here.
+ */
+public class PooledHttpTransport implements AmadeusTransport {
+    private static final int TRACKED_CONNECTIONS = 1024;
+
+    private final HttpClient client;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final long acquireTimeoutMillis;
+    private final Duration requestTimeout;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder poolTimeouts = new LongAdder();
+    private final LongAdder http2Responses = new LongAdder();
+    private final LongAdder tlsResponses = new LongAdder();
+    private final LongAdder connectionsOpened = new LongAdder();
+    // TLS session ids seen recently; a new id means a new connection (and handshake)
+    private final Set<String> seenSessions = Collections.newSetFromMap(
+            new LinkedHashMap<String, Boolean>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                    return size() > TRACKED_CONNECTIONS;
+                }
+            });
+
+    public PooledHttpTransport(int maxConnections, Duration connectTimeout, Duration requestTimeout,
+                               long acquireTimeoutMillis, boolean http2) {
+        this.maxConcurrent = Math.max(1, maxConnections);
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.acquireTimeoutMillis = Math.max(0, acquireTimeoutMillis);
+        this.requestTimeout = requestTimeout;
+        this.executor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "amadeus-http");
+            t.setDaemon(true);
+            return t;
+        });
+        this.client = HttpClient.newBuilder()
+                .version(http2 ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .executor(executor)
+                .build();
+    }
+
+    @Override
+    public Result send(String method, String uri, Map<String, String> headers, String body) throws IOException {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                poolTimeouts.increment();
+                throw new IOException("Amadeus connection pool exhausted (" + maxConcurrent + " in use)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting for an Amadeus connection", e);
+        }
+
+        inflight.incrementAndGet();
+        requests.increment();
+        try {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(uri)).timeout(requestTimeout);
+            for (Map.Entry<String, String> h : headers.entrySet()) {
+                builder.header(h.getKey(), h.getValue());
+            }
+            builder.method(method, body != null
+                    ? HttpRequest.BodyPublishers.ofString(body)
+                    : HttpRequest.BodyPublishers.noBody());
+
+            HttpResponse<String> response = client.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+            recordConnection(response);
+            return new Result(response.statusCode(),
+                    response.headers().firstValue("Content-Type").orElse(null),
+                    response.body());
+        } catch (InterruptedException e) {
+            failures.increment();
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted during Amadeus call", e);
+        } catch (IOException | RuntimeException e) {
+            failures.increment();
+            throw e;
+        } finally {
+            inflight.decrementAndGet();
+            permits.release();
+        }
+    }
+
+    private void recordConnection(HttpResponse<?> response) {
+        if (response.version() == HttpClient.Version.HTTP_2) http2Responses.increment();
+        SSLSession session = response.sslSession().orElse(null);
+        if (session == null) return;
+        tlsResponses.increment();
+        String id = Base64.getEncoder().encodeToString(session.getId()) + '/' + session.getCreationTime();
+        synchronized (seenSessions) {
+            if (seenSessions.add(id)) connectionsOpened.increment();
+        }
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        long total = requests.sum();
+        long tls = tlsResponses.sum();
+        long opened = connectionsOpened.sum();
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("transport", "pooled");
+        out.put("maxConcurrent", maxConcurrent);
+        out.put("inflight", inflight.get());
+        out.put("poolUtilisation", (double) inflight.get() / maxConcurrent);
+        out.put("requests", total);
+        out.put("failures", failures.sum());
+        out.put("poolTimeouts", poolTimeouts.sum());
+        out.put("http2Responses", http2Responses.sum());
+        out.put("connectionsOpened", opened);
+        // Share of TLS responses that rode on an already-open connection
+        out.put("connectionReuseRate", tls == 0 ? 0.0 : Math.max(0.0, 1.0 - (double) opened / tls));
+        return out;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
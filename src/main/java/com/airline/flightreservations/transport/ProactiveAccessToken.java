@@ -0,0 +1,151 @@
+package com.airline.flightreservations.transport;
+
+import com.amadeus.Configuration;
+import com.amadeus.Constants;
+import com.amadeus.HTTPClient;
+import com.amadeus.Params;
+import com.amadeus.Response;
+import com.amadeus.client.AccessToken;
+import com.amadeus.exceptions.ResponseException;
+import com.google.gson.JsonObject;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * OAuth token that is renewed in the background before it expires.
+ *
+ * The SDK's {@link AccessToken} refreshes lazily, so the request that finds the token
+ * expired pays for the token round trip. Here a scheduled refresh runs ahead of expiry
+ * and requests just read the current token; the inline path remains only as a fallback
+ * for the very first call or after background refreshes kept failing.
+ */
+final class ProactiveAccessToken extends AccessToken {
+    private static final Logger log = LoggerFactory.getLogger(ProactiveAccessToken.class);
+
+    private static final long EXPIRY_BUFFER_MILLIS = 10_000L;   // same safety margin as the SDK
+    private static final long MIN_RETRY_MILLIS = 1_000L;
+    private static final long MAX_RETRY_MILLIS = 60_000L;
+
+    /** Immutable so readers never see a token paired with another token's expiry. */
+    private static final class Token {
+        final String bearer;
+        final long expiresAt;
+        final long lifetimeMillis;
+
+        Token(String bearer, long expiresAt, long lifetimeMillis) {
+            this.bearer = bearer;
+            this.expiresAt = expiresAt;
+            this.lifetimeMillis = lifetimeMillis;
+        }
+
+        /**
+         * When to replace this token to stay {@code aheadMillis} before expiry. The margin is
+         * capped at half the token's lifetime, so a token issued for less than the configured
+         * margin is still used for a while instead of being refreshed again straight away.
+         */
+        long refreshAt(long aheadMillis) {
+            return expiresAt - Math.min(aheadMillis, lifetimeMillis / 2);
+        }
+    }
+
+    private final HTTPClient client;
+    private final ScheduledExecutorService scheduler;
+    private final long refreshAheadMillis;
+    private volatile Token current;
+    private long retryMillis = MIN_RETRY_MILLIS;   // refresh thread only
+
+    private final LongAdder backgroundRefreshes = new LongAdder();
+    private final LongAdder inlineRefreshes = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+
+    ProactiveAccessToken(HTTPClient client, ScheduledExecutorService scheduler, long refreshAheadMillis) {
+        super(client);
+        this.client = client;
+        this.scheduler = scheduler;
+        this.refreshAheadMillis = Math.max(EXPIRY_BUFFER_MILLIS, refreshAheadMillis);
+    }
+
+    /** Fetches the first token in the background so the first user request does not have to. */
+    void start() {
+        scheduler.execute(this::backgroundRefresh);
+    }
+
+    @Override
+    public String getBearerToken() throws ResponseException {
+        Token token = current;
+        if (token == null || System.currentTimeMillis() > token.refreshAt(EXPIRY_BUFFER_MILLIS)) {
+            token = refreshInline();
+        }
+        return token.bearer;
+    }
+
+    Map<String, Object> stats() {
+        Token token = current;
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("expiresInSeconds", token == null ? 0 : Math.max(0, (token.expiresAt - System.currentTimeMillis()) / 1000));
+        out.put("backgroundRefreshes", backgroundRefreshes.sum());
+        out.put("inlineRefreshes", inlineRefreshes.sum());
+        out.put("refreshFailures", refreshFailures.sum());
+        return out;
+    }
+
+    private synchronized Token refreshInline() throws ResponseException {
+        Token token = current;
+        if (token != null && System.currentTimeMillis() <= token.refreshAt(EXPIRY_BUFFER_MILLIS)) {
+            return token; // another thread refreshed while we waited
+        }
+        inlineRefreshes.increment();
+        return fetch();
+    }
+
+    private void backgroundRefresh() {
+        long delay;
+        try {
+            Token token;
+            synchronized (this) {
+                token = current;
+                if (token == null || System.currentTimeMillis() >= token.refreshAt(refreshAheadMillis)) {
+                    token = fetch();
+                    backgroundRefreshes.increment();
+                } // else an inline refresh got there first
+            }
+            retryMillis = MIN_RETRY_MILLIS;
+            delay = Math.max(MIN_RETRY_MILLIS, token.refreshAt(refreshAheadMillis) - System.currentTimeMillis());
+        } catch (ResponseException | RuntimeException ex) {
+            refreshFailures.increment();
+            log.warn("Amadeus token refresh failed, retrying in {} ms: {}", retryMillis, ex.getMessage());
+            delay = retryMillis;
+            retryMillis = Math.min(MAX_RETRY_MILLIS, retryMillis * 2);
+        }
+        if (!scheduler.isShutdown()) {
+            scheduler.schedule(this::backgroundRefresh, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Same request the SDK's AccessToken makes
+    private Token fetch() throws ResponseException {
+        Configuration config = client.getConfiguration();
+        Response response = client.unauthenticatedRequest(
+                Constants.POST,
+                Constants.AUTH_URL,
+                Params.with(Constants.GRANT_TYPE, Constants.CLIENT_CREDENTIALS)
+                        .and(Constants.CLIENT_ID, config.getClientId())
+                        .and(Constants.CLIENT_SECRET, config.getClientSecret()),
+                null,
+                null
+        );
+        JsonObject result = response.getResult();
+        String value = result.get(Constants.ACCESS_TOKEN).getAsString();
+        long expiresIn = result.get(Constants.EXPIRES_IN).getAsLong();
+        Token token = new Token("Bearer " + value, System.currentTimeMillis() + expiresIn * 1000L, expiresIn * 1000L);
+        current = token;
+        return token;
+    }
+}
@@ -0,0 +1,120 @@
+package com.airline.flightreservations.transport;
+
+import com.amadeus.Amadeus;
+import com.amadeus.Configuration;
+import com.amadeus.Constants;
+import com.amadeus.Params;
+import com.amadeus.Response;
+import com.amadeus.exceptions.AuthenticationException;
+import com.amadeus.exceptions.ClientException;
+import com.amadeus.exceptions.NetworkException;
+import com.amadeus.exceptions.NotFoundException;
+import com.amadeus.exceptions.ParserException;
+import com.amadeus.exceptions.ResponseException;
+import com.amadeus.exceptions.ServerException;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Amadeus client whose HTTP calls go through an {@link AmadeusTransport}.
+ *
+ * All namespaced SDK APIs funnel into {@link #unauthenticatedRequest}, so overriding
+ * it is enough to swap the transport; resources, pagination and exceptions stay the
+ * SDK's own. The access token is replaced with a {@link ProactiveAccessToken}.
+ */
+public class TransportAmadeus extends Amadeus implements AutoCloseable {
+    private final AmadeusTransport transport;
+    private final ScheduledExecutorService tokenScheduler;
+    private final ProactiveAccessToken token;
+
+    public TransportAmadeus(Configuration configuration, AmadeusTransport transport, long tokenRefreshAheadMillis) {
+        super(configuration);
+        this.transport = transport;
+        this.tokenScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "amadeus-token");
+            t.setDaemon(true);
+            return t;
+        });
+        this.token = new ProactiveAccessToken(this, tokenScheduler, tokenRefreshAheadMillis);
+        this.accessToken = token;
+    }
+
+    /**
+     * Fetches the first token in the background so the first user request does not have to.
+     * Not called from the constructor: building a client makes no network calls.
+     */
+    public void start() {
+        token.start();
+    }
+
+    @Override
+    public Response unauthenticatedRequest(String verb, String path, Params params, String body,
+                                           String bearerToken) throws ResponseException {
+        TransportRequest request = new TransportRequest(verb, path, params, body, bearerToken, this);
+
+        Map<String, String> headers = new HashMap<>(request.getHeaders());
+        String payload = null;
+        if (Constants.POST.equals(verb)) {
+            // Mirrors HTTPClient.write: the token call sends its params as a form, everything else the body
+            if (params != null && bearerToken == null) {
+                payload = params.toString(); // Params.toString() is its form/query encoding
+                headers.put(Constants.CONTENT_TYPE, "application/x-www-form-urlencoded");
+            } else {
+                payload = body != null ? body : "";
+            }
+        }
+
+        AmadeusTransport.Result result;
+        try {
+            result = transport.send(verb, request.getUri(), headers, payload);
+        } catch (IOException e) {
+            throw new NetworkException(new TransportResponse(request, 0, null, null));
+        }
+
+        TransportResponse response = new TransportResponse(request, result.status, result.contentType, result.body);
+        detectError(response);
+        return response;
+    }
+
+    /** Transport pool stats plus access-token refresh stats. */
+    public Map<String, Object> stats() {
+        Map<String, Object> out = new LinkedHashMap<>(transport.stats());
+        out.put("token", token.stats());
+        return out;
+    }
+
+    @Override
+    public void close() {
+        tokenScheduler.shutdownNow();
+        transport.close();
+    }
+
+    // Same mapping as Response.detectError, which reads private fields we cannot populate
+    private void detectError(Response response) throws ResponseException {
+        int status = response.getStatusCode();
+        ResponseException exception = null;
+        if (status >= 500) {
+            exception = new ServerException(response);
+        } else if (status == 404) {
+            exception = new NotFoundException(response);
+        } else if (status == 401) {
+            exception = new AuthenticationException(response);
+        } else if (status >= 400) {
+            exception = new ClientException(response);
+        } else if (status == 204) {
+            return;
+        } else if (!response.isParsed()) {
+            exception = new ParserException(response);
+        }
+
+        if (exception != null) {
+            exception.log(getConfiguration());
+            throw exception;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.airline.flightreservations.transport;
+
+import com.amadeus.HTTPClient;
+import com.amadeus.Params;
+import com.amadeus.Request;
+
+/**
+ * The SDK's own request object, reused for its URI and header building
+ * so calls through a transport are byte-for-byte what the SDK would send.
+ * It never opens an {@code HttpURLConnection}.
+ */
+final class TransportRequest extends Request {
+    TransportRequest(String verb, String path, Params params, String body, String bearerToken, HTTPClient client) {
+        super(verb, path, params, body, bearerToken, client);
+    }
+}
@@ -0,0 +1,66 @@
+package com.airline.flightreservations.transport;
+
+import com.amadeus.Request;
+import com.amadeus.Response;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+/**
+ * An SDK {@link Response} filled from an {@link AmadeusTransport.Result}.
+ *
+ * The SDK's Response parses itself from an {@code HttpURLConnection}; everything
+ * downstream (resources, pagination, exceptions) only uses its getters, so those
+ * are overridden here with the same parsing rules applied to the transport result.
+ */
+final class TransportResponse extends Response {
+    private final int statusCode;
+    private final String body;
+    private final JsonObject result;
+    private final JsonElement data;
+    private final JsonElement warnings;
+
+    TransportResponse(Request request, int statusCode, String contentType, String body) {
+        super(request);
+        this.statusCode = statusCode;
+        this.body = body;
+        this.result = statusCode != 204 && isJson(contentType) && body != null && !body.isEmpty()
+                ? parse(body) : null;
+        this.data = child(result, "data");
+        this.warnings = child(result, "warnings");
+    }
+
+    @Override public int getStatusCode() { return statusCode; }
+    @Override public boolean isParsed() { return result != null; }
+    @Override public JsonObject getResult() { return result; }
+    @Override public JsonElement getData() { return data; }
+    @Override public JsonElement getWarnings() { return warnings; }
+    @Override public String getBody() { return body; }
+
+    @Override
+    public String toString() {
+        return "TransportResponse(statusCode=" + statusCode + ", body=" + body + ")";
+    }
+
+    private static boolean isJson(String contentType) {
+        if (contentType == null) return false;
+        String type = contentType.split(";", 2)[0].trim();
+        return type.equals("application/json") || type.equals("application/vnd.amadeus+json");
+    }
+
+    private static JsonObject parse(String body) {
+        try {
+            JsonElement element = JsonParser.parseString(body);
+            return element.isJsonObject() ? element.getAsJsonObject() : null;
+        } catch (JsonParseException e) {
+            return null;
+        }
+    }
+
+    private static JsonElement child(JsonObject result, String name) {
+        if (result == null || !result.has(name)) return null;
+        JsonElement e = result.get(name);
+        return e.isJsonArray() || e.isJsonObject() ? e : null;
+    }
+}
@@ -0,0 +1,41 @@
+package com.airline.flightreservations.watch;
+
+import com.airline.flightreservations.AmadeusConnect;
+import com.amadeus.exceptions.ResponseException;
+import com.amadeus.resources.FlightOfferSearch;
+
+import java.util.OptionalDouble;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/** Polls the Amadeus flight offers search; only the cheapest total is kept. */
+@Component
+public class AmadeusFarePoller implements FarePoller {
+    private final AmadeusConnect amadeusConnect;
+    private final int maxResults;
+
+    public AmadeusFarePoller(
+            AmadeusConnect amadeusConnect,
+            @Value("${watch.max-results:20}") int maxResults) {
+        this.amadeusConnect = amadeusConnect;
+        this.maxResults = maxResults;
+    }
+
+    @Override
+    public OptionalDouble cheapest(WatchKey key) throws ResponseException {
+        FlightOfferSearch[] offers = amadeusConnect.flights(
+                key.origin, key.destination, key.departDate.toString(), String.valueOf(key.adults),
+                0, 0, null, key.travelClass, key.currencyCode, maxResults
+        );
+        if (offers == null) return OptionalDouble.empty();
+
+        double min = Double.MAX_VALUE;
+        for (FlightOfferSearch offer : offers) {
+            if (offer != null && offer.getPrice() != null && offer.getPrice().getTotal() > 0) {
+                min = Math.min(min, offer.getPrice().getTotal());
+            }
+        }
+        return min == Double.MAX_VALUE ? OptionalDouble.empty() : OptionalDouble.of(min);
+    }
+}
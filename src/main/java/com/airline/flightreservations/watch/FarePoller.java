@@ -0,0 +1,12 @@
+package com.airline.flightreservations.watch;
+
+import com.amadeus.exceptions.ResponseException;
+
+import java.util.OptionalDouble;
+
+/** Fetches the current cheapest total price for a normalized search. */
+@FunctionalInterface
+public interface FarePoller {
+    /** @return the cheapest offer total in {@code key.currencyCode}, or empty if nothing is sold */
+    OptionalDouble cheapest(WatchKey key) throws ResponseException;
+}
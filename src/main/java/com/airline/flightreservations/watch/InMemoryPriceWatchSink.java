@@ -0,0 +1,32 @@
+package com.airline.flightreservations.watch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * In-process sink used until a real notification channel is wired in, and in tests.
+ * Keeps the most recent events in a bounded queue; the oldest are dropped when full.
+ */
+public class InMemoryPriceWatchSink implements PriceWatchSink {
+    private final BlockingQueue<PriceDropEvent> events;
+
+    public InMemoryPriceWatchSink(int capacity) {
+        this.events = new ArrayBlockingQueue<>(Math.max(1, capacity));
+    }
+
+    @Override
+    public void publish(PriceDropEvent event) {
+        while (!events.offer(event)) {
+            events.poll();
+        }
+    }
+
+    /** Removes and returns everything published so far. */
+    public List<PriceDropEvent> drain() {
+        List<PriceDropEvent> out = new ArrayList<>();
+        events.drainTo(out);
+        return out;
+    }
+}
@@ -0,0 +1,26 @@
+package com.airline.flightreservations.watch;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * How often a search is re-polled. Fares move most in the last days before
+ * departure, so the interval shrinks as departure gets closer.
+ */
+public final class PollPolicy {
+    private final long baseMillis;
+
+    /** @param base interval used in the final 3 days before departure */
+    public PollPolicy(Duration base) {
+        this.baseMillis = Math.max(1000L, base.toMillis());
+    }
+
+    public long intervalMillis(LocalDate departDate, LocalDate today) {
+        long days = ChronoUnit.DAYS.between(today, departDate);
+        if (days <= 3) return baseMillis;
+        if (days <= 14) return baseMillis * 4;
+        if (days <= 60) return baseMillis * 12;
+        return baseMillis * 24;
+    }
+}
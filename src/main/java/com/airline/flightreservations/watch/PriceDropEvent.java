@@ -0,0 +1,37 @@
+package com.airline.flightreservations.watch;
+
+import java.time.Instant;
+
+/** Emitted once per matching watch when the cheapest price for its search drops. */
+public final class PriceDropEvent {
+    private final long watchId;
+    private final long subscriberId;
+    private final WatchKey key;
+    private final int previousCents;
+    private final int currentCents;
+    private final Instant observedAt;
+
+    public PriceDropEvent(long watchId, long subscriberId, WatchKey key,
+                          int previousCents, int currentCents, Instant observedAt) {
+        this.watchId = watchId;
+        this.subscriberId = subscriberId;
+        this.key = key;
+        this.previousCents = previousCents;
+        this.currentCents = currentCents;
+        this.observedAt = observedAt;
+    }
+
+    public long getWatchId() { return watchId; }
+    public long getSubscriberId() { return subscriberId; }
+    public WatchKey getKey() { return key; }
+    public int getPreviousCents() { return previousCents; }
+    public int getCurrentCents() { return currentCents; }
+    public String getCurrency() { return key.currencyCode; }
+    public Instant getObservedAt() { return observedAt; }
+
+    @Override
+    public String toString() {
+        return "PriceDropEvent{watch=" + watchId + ", subscriber=" + subscriberId + ", key=" + key
+                + ", " + previousCents + " -> " + currentCents + ", at=" + observedAt + '}';
+    }
+}
@@ -0,0 +1,206 @@
+package com.airline.flightreservations.watch;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.OptionalDouble;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Schedules upstream polls for price watches.
+ *
+ * All watches on the same {@link WatchKey} share a single poll, so 10,000 users watching
+ * JFK-LAX on one date cost one upstream search per interval, not 10,000.
+ * A new search gets a first poll at a stable offset inside its interval so that
+ * searches created together do not all fire together, and every reschedule adds a
+ * little jitter on top of the {@link PollPolicy} interval.
+ */
+@Component
+public class PriceWatchScheduler {
+    private static final Logger log = LoggerFactory.getLogger(PriceWatchScheduler.class);
+
+    private final FarePoller poller;
+    private final PriceWatchSink sink;
+    private final PollPolicy policy;
+    private final Clock clock;
+    private final Executor workers;
+    private final int maxPollsPerTick;
+    private final long tickMillis;
+
+    // Guarded by "this"
+    private final WatchStore store = new WatchStore();
+    private final PriorityQueue<WatchStore.Group> due =
+            new PriorityQueue<>(Comparator.comparingLong(g -> g.nextPollAt));
+
+    private ScheduledExecutorService ticker;
+
+    @Autowired
+    public PriceWatchScheduler(
+            FarePoller poller,
+            PriceWatchSink sink,
+            @Value("${watch.base-interval:PT30M}") Duration baseInterval,
+            @Value("${watch.workers:4}") int workers,
+            @Value("${watch.max-polls-per-tick:4}") int maxPollsPerTick,
+            @Value("${watch.tick-ms:1000}") long tickMillis) {
+        this(poller, sink, new PollPolicy(baseInterval), Clock.systemUTC(),
+                Executors.newFixedThreadPool(Math.max(1, workers), r -> {
+                    Thread t = new Thread(r, "price-watch-poll");
+                    t.setDaemon(true);
+                    return t;
+                }),
+                maxPollsPerTick, tickMillis);
+    }
+
+    PriceWatchScheduler(FarePoller poller, PriceWatchSink sink, PollPolicy policy, Clock clock,
+                        Executor workers, int maxPollsPerTick, long tickMillis) {
+        this.poller = poller;
+        this.sink = sink;
+        this.policy = policy;
+        this.clock = clock;
+        this.workers = workers;
+        this.maxPollsPerTick = Math.max(1, maxPollsPerTick);
+        this.tickMillis = Math.max(10L, tickMillis);
+    }
+
+    @PostConstruct
+    void start() {
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "price-watch-tick");
+            t.setDaemon(true);
+            return t;
+        });
+        ticker.scheduleWithFixedDelay(this::safeTick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (ticker != null) ticker.shutdownNow();
+        if (workers instanceof ExecutorService) ((ExecutorService) workers).shutdownNow();
+    }
+
+    /**
+     * Registers a watch.
+     * @param targetCents only notify once the price is at or below this; 0 = any drop
+     * @return the watch id, used to cancel it
+     */
+    public synchronized long watch(WatchKey key, long subscriberId, int targetCents) {
+        WatchStore.Group group = store.group(key);
+        long id = store.add(group, subscriberId, targetCents);
+        if (!group.scheduled) {
+            long interval = policy.intervalMillis(key.departDate, today());
+            group.nextPollAt = clock.millis() + Math.floorMod(key.hashCode(), interval);
+            group.scheduled = true;
+            due.add(group);
+        }
+        return id;
+    }
+
+    public synchronized boolean unwatch(long watchId) {
+        return store.remove(watchId);
+    }
+
+    public synchronized int watchCount() { return store.size(); }
+
+    public synchronized int searchCount() { return store.groups().size(); }
+
+    /** Starts the polls that are due, at most {@code maxPollsPerTick} per call. */
+    void tick() {
+        List<WatchStore.Group> batch = new ArrayList<>();
+        synchronized (this) {
+            long now = clock.millis();
+            LocalDate today = today();
+            while (batch.size() < maxPollsPerTick && !due.isEmpty() && due.peek().nextPollAt <= now) {
+                WatchStore.Group group = due.poll();
+                if (group.key.departDate.isBefore(today)) {
+                    // Flight has left; nothing left to watch
+                    group.scheduled = false;
+                    store.removeGroup(group);
+                } else if (store.dropIfEmpty(group)) {
+                    group.scheduled = false;
+                } else {
+                    batch.add(group);
+                }
+            }
+        }
+        for (WatchStore.Group group : batch) {
+            workers.execute(() -> poll(group));
+        }
+    }
+
+    private void safeTick() {
+        try {
+            tick();
+        } catch (RuntimeException ex) {
+            log.warn("Price watch tick failed", ex);
+        }
+    }
+
+    private void poll(WatchStore.Group group) {
+        OptionalDouble cheapest;
+        try {
+            cheapest = poller.cheapest(group.key);
+        } catch (Exception ex) {
+            log.debug("Price watch poll failed for {}: {}", group.key, ex.getMessage());
+            cheapest = OptionalDouble.empty();
+        }
+
+        List<PriceDropEvent> events = new ArrayList<>();
+        synchronized (this) {
+            if (cheapest.isPresent()) {
+                int current = (int) Math.round(cheapest.getAsDouble() * 100);
+                int previous = group.lastCents;
+                group.lastCents = current;
+                if (previous >= 0 && current < previous) {
+                    Instant at = clock.instant();
+                    for (int i = 0; i < group.memberCount; i++) {
+                        int slot = group.members[i];
+                        int target = store.targetCents(slot);
+                        if (target == 0 || current <= target) {
+                            events.add(new PriceDropEvent(store.id(slot), store.subscriber(slot),
+                                    group.key, previous, current, at));
+                        }
+                    }
+                }
+            }
+            reschedule(group);
+        }
+
+        for (PriceDropEvent event : events) {
+            try {
+                sink.publish(event);
+            } catch (RuntimeException ex) {
+                log.warn("Price watch sink rejected {}", event, ex);
+            }
+        }
+    }
+
+    private void reschedule(WatchStore.Group group) {
+        long interval = policy.intervalMillis(group.key.departDate, today());
+        long jitter = ThreadLocalRandom.current().nextLong(interval / 10 + 1);
+        group.nextPollAt = clock.millis() + interval - interval / 20 + jitter;
+        due.add(group);
+    }
+
+    /** Today in the scheduler's (UTC) clock, the day watches are polled and expired by. */
+    public LocalDate today() {
+        return LocalDate.now(clock);
+    }
+}
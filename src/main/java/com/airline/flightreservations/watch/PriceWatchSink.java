@@ -0,0 +1,9 @@
+package com.airline.flightreservations.watch;
+
+/**
+ * Destination for price-drop notifications (push, email, queue...).
+ * Called from scheduler worker threads, so implementations must be thread-safe and should not block for long.
+ */
+public interface PriceWatchSink {
+    void publish(PriceDropEvent event);
+}
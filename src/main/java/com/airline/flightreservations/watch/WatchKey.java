@@ -0,0 +1,48 @@
+package com.airline.flightreservations.watch;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * A normalized flight search. Every watch on the same key shares one upstream poll,
+ * so anything that does not change the upstream result must be normalized away here.
+ */
+public final class WatchKey {
+    public final String origin;          // "JFK"
+    public final String destination;     // "LAX"
+    public final LocalDate departDate;   // 2026-12-01
+    public final int adults;             // 1..9
+    public final String travelClass;     // "ECONOMY" or null for any cabin
+    public final String currencyCode;    // "USD"
+
+    private final String id;
+
+    public WatchKey(String origin, String destination, LocalDate departDate, int adults,
+                    String travelClass, String currencyCode) {
+        this.origin = origin.trim().toUpperCase(Locale.ROOT);
+        this.destination = destination.trim().toUpperCase(Locale.ROOT);
+        this.departDate = departDate;
+        this.adults = Math.max(1, adults);
+        // Same normalization AmadeusConnect.flights applies before calling upstream
+        this.travelClass = travelClass == null || travelClass.isBlank()
+                ? null : travelClass.trim().replace(' ', '_').toUpperCase(Locale.ROOT);
+        this.currencyCode = currencyCode == null || currencyCode.isBlank()
+                ? "USD" : currencyCode.trim().toUpperCase(Locale.ROOT);
+        this.id = this.origin + '|' + this.destination + '|' + departDate + '|' + this.adults
+                + '|' + (this.travelClass != null ? this.travelClass : "") + '|' + this.currencyCode;
+    }
+
+    /** Stable identifier, e.g. "JFK|LAX|2026-12-01|1|ECONOMY|USD". */
+    public String id() { return id; }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof WatchKey && id.equals(((WatchKey) o).id);
+    }
+
+    @Override
+    public int hashCode() { return id.hashCode(); }
+
+    @Override
+    public String toString() { return id; }
+}
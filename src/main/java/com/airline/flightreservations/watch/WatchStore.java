@@ -0,0 +1,131 @@
+package com.airline.flightreservations.watch;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compact storage for price watches.
+ *
+ * Each watch is a slot in a set of parallel primitive arrays (~28 bytes per watch),
+ * so millions of watches cost tens of MB rather than one object graph per watch.
+ * Watches are grouped by {@link WatchKey}; a group keeps the slots of its members
+ * so a price change fans out without scanning the whole store.
+ *
+ * Not thread-safe: {@link PriceWatchScheduler} guards every access with its own lock.
+ */
+final class WatchStore {
+
+    /** Shared state for all watches on one normalized search. */
+    static final class Group {
+        final WatchKey key;
+        int[] members = new int[4];
+        int memberCount;
+        int lastCents = -1;        // cheapest price seen by the last poll, -1 = never polled
+        long nextPollAt;           // epoch millis
+        boolean scheduled;         // queued or in flight
+
+        Group(WatchKey key) { this.key = key; }
+    }
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private long[] subscribers = new long[INITIAL_CAPACITY];
+    private int[] targetCents = new int[INITIAL_CAPACITY];     // 0 = notify on any drop
+    private int[] generations = new int[INITIAL_CAPACITY];     // bumped on release, guards stale ids
+    private int[] positions = new int[INITIAL_CAPACITY];       // index of the slot inside its group
+    private Group[] groupOf = new Group[INITIAL_CAPACITY];
+
+    private int highWater;                                     // slots [0, highWater) have been used
+    private int[] freeSlots = new int[64];
+    private int freeCount;
+    private int liveCount;
+
+    private final Map<WatchKey, Group> groups = new HashMap<>();
+
+    /** Returns the group for {@code key}, creating an empty one if needed. */
+    Group group(WatchKey key) {
+        return groups.computeIfAbsent(key, Group::new);
+    }
+
+    Collection<Group> groups() { return groups.values(); }
+
+    /** Adds a watch to {@code group} and returns its id. */
+    long add(Group group, long subscriberId, int target) {
+        int slot = freeCount > 0 ? freeSlots[--freeCount] : nextSlot();
+        subscribers[slot] = subscriberId;
+        targetCents[slot] = Math.max(0, target);
+        groupOf[slot] = group;
+
+        if (group.memberCount == group.members.length) {
+            group.members = Arrays.copyOf(group.members, group.members.length * 2);
+        }
+        positions[slot] = group.memberCount;
+        group.members[group.memberCount++] = slot;
+        liveCount++;
+        return id(slot);
+    }
+
+    /** Removes the watch with {@code id}; returns false if it does not exist (anymore). */
+    boolean remove(long id) {
+        int slot = (int) id;
+        if (slot < 0 || slot >= highWater || groupOf[slot] == null
+                || generations[slot] != (int) (id >>> 32)) {
+            return false;
+        }
+        release(slot);
+        return true;
+    }
+
+    /** Removes every watch in {@code group} and forgets the group. */
+    void removeGroup(Group group) {
+        while (group.memberCount > 0) {
+            release(group.members[group.memberCount - 1]);
+        }
+        groups.remove(group.key, group);
+    }
+
+    /** Forgets an empty group; returns false if it gained members meanwhile. */
+    boolean dropIfEmpty(Group group) {
+        if (group.memberCount > 0) return false;
+        groups.remove(group.key, group);
+        return true;
+    }
+
+    long id(int slot) { return ((long) generations[slot] << 32) | slot; }
+    long subscriber(int slot) { return subscribers[slot]; }
+    int targetCents(int slot) { return targetCents[slot]; }
+    int size() { return liveCount; }
+
+    private void release(int slot) {
+        Group group = groupOf[slot];
+
+        // Swap-remove from the group's member list
+        int pos = positions[slot];
+        int last = group.members[--group.memberCount];
+        group.members[pos] = last;
+        positions[last] = pos;
+
+        groupOf[slot] = null;
+        generations[slot]++;
+        liveCount--;
+
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    private int nextSlot() {
+        if (highWater == subscribers.length) {
+            int cap = subscribers.length + (subscribers.length >> 1);
+            subscribers = Arrays.copyOf(subscribers, cap);
+            targetCents = Arrays.copyOf(targetCents, cap);
+            generations = Arrays.copyOf(generations, cap);
+            positions = Arrays.copyOf(positions, cap);
+            groupOf = Arrays.copyOf(groupOf, cap);
+        }
+        return highWater++;
+    }
+}
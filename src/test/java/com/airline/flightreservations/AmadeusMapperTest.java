@@ -0,0 +1,160 @@
+package com.airline.flightreservations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.airline.flightreservations.dto.FlightOfferDTO;
+import com.airline.flightreservations.dto.LocationDTO;
+import com.airline.flightreservations.dto.PriceDTO;
+import com.amadeus.resources.FlightOfferSearch;
+import com.amadeus.resources.Location;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.gson.Gson;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+class AmadeusMapperTest {
+
+    private static final Gson GSON = new Gson();
+
+    private static final String DENSE_OFFER = "{"
+            + "\"id\":\"1\",\"validatingAirlineCodes\":[\"UA\"],"
+            + "\"price\":{\"currency\":\"USD\",\"total\":\"412.30\"},"
+            + "\"itineraries\":["
+            + "{\"duration\":\"PT7H10M\",\"segments\":["
+            + "{\"id\":\"1\",\"carrierCode\":\"UA\",\"number\":\"1234\",\"aircraft\":{\"code\":\"73H\"},\"duration\":\"PT3H\",\"numberOfStops\":0,"
+            + "\"departure\":{\"iataCode\":\"IAH\",\"terminal\":\"C\",\"at\":\"2026-11-01T08:00:00\"},"
+            + "\"arrival\":{\"iataCode\":\"ORD\",\"terminal\":\"1\",\"at\":\"2026-11-01T11:00:00\"}},"
+            + "{\"id\":\"2\",\"carrierCode\":\"UA\",\"number\":\"88\",\"duration\":\"PT2H\",\"numberOfStops\":0,"
+            + "\"departure\":{\"iataCode\":\"ORD\",\"at\":\"2026-11-01T13:00:00\"},"
+            + "\"arrival\":{\"iataCode\":\"JFK\",\"at\":\"2026-11-01T15:10:00\"}}]},"
+            + "{\"duration\":\"PT4H\",\"segments\":["
+            + "{\"id\":\"3\",\"carrierCode\":\"AA\",\"number\":\"7\",\"duration\":\"PT4H\",\"numberOfStops\":0,"
+            + "\"departure\":{\"iataCode\":\"JFK\",\"at\":\"2026-11-08T09:00:00\"},"
+            + "\"arrival\":{\"iataCode\":\"IAH\",\"at\":\"2026-11-08T12:00:00\"}}]}],"
+            + "\"travelerPricings\":[{\"travelerId\":\"1\",\"fareDetailsBySegment\":["
+            + "{\"segmentId\":\"1\",\"cabin\":\"ECONOMY\"},{\"segmentId\":\"2\",\"cabin\":\"ECONOMY\"},"
+            + "{\"segmentId\":\"3\",\"cabin\":\"BUSINESS\"}]}]}";
+
+    private static final String SPARSE_OFFER = "{\"id\":\"2\",\"itineraries\":[{\"segments\":[{\"carrierCode\":\"DL\"}]}]}";
+
+    @Test
+    void mapsEveryItineraryAndSegment() {
+        FlightOfferSearch[] offers = offers(DENSE_OFFER, 1);
+        List<FlightOfferDTO> dtos = AmadeusMapper.toFlightOfferDTOs(offers, Map.of("UA", "United Airlines"), List.of());
+
+        FlightOfferDTO dto = dtos.get(0);
+        assertEquals(List.of("UA"), dto.validatingAirlines);
+        assertEquals(2, dto.itineraries.size());
+        assertEquals(2, dto.itineraries.get(0).segments.size());
+        assertEquals("BUSINESS", dto.itineraries.get(1).segments.get(0).cabin);
+        assertEquals("73H", dto.itineraries.get(0).segments.get(0).aircraftCode);
+        assertEquals("United Airlines", dto.airlineName);
+        assertEquals(1, dto.numberOfStops);
+        assertEquals("IAH", dto.originCode);
+        assertEquals("JFK", dto.destinationCode);
+        assertEquals("ECONOMY", dto.cabin);
+        assertEquals("412.3", dto.price.total);
+    }
+
+    @Test
+    void sparsePayloadsMapWithoutThrowing() {
+        FlightOfferSearch[] offers = offers(SPARSE_OFFER, 1);
+        FlightOfferDTO dto = AmadeusMapper.toFlightOfferDTOs(offers, Map.of(), null).get(0);
+        assertEquals("DL", dto.carrierCode);
+        assertNull(dto.price);
+        assertNull(dto.cabin);
+        assertNull(dto.rawOffer);
+
+        Location[] locations = GSON.fromJson("[{\"iataCode\":\"IAH\"},{\"iataCode\":\"HOU\",\"geoCode\":{\"latitude\":29.6,\"longitude\":-95.2}}]", Location[].class);
+        List<LocationDTO> locs = AmadeusMapper.toLocationDTOs(locations);
+        assertNull(locs.get(0).city);
+        assertNull(locs.get(0).latitude);
+        assertEquals(-95.2, locs.get(1).longitude);
+    }
+
+    /** Run with -Dbenchmark=true; prints offers/s for the previous try/catch mapper and this one. */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkAgainstLegacyMapper() {
+        for (String[] payload : new String[][]{{"sparse", SPARSE_OFFER}, {"dense", DENSE_OFFER}}) {
+            FlightOfferSearch[] offers = offers(payload[1], 250);
+            List<JsonNode> raw = new ArrayList<>();
+            for (int i = 0; i < offers.length; i++) raw.add(null);
+            Map<String, String> names = Map.of("UA", "United Airlines");
+
+            double legacy = throughput(() -> LegacyMapper.toFlightOfferDTOs(offers, names, raw), offers.length);
+            double current = throughput(() -> AmadeusMapper.toFlightOfferDTOs(offers, names, raw), offers.length);
+            System.out.printf("%-6s legacy %,12.0f offers/s   current %,12.0f offers/s   (x%.2f)%n",
+                    payload[0], legacy, current, current / legacy);
+        }
+    }
+
+    private static double throughput(Runnable run, int offersPerRun) {
+        for (int i = 0; i < 2_000; i++) run.run(); // warm-up
+        int runs = 0;
+        long start = System.nanoTime();
+        long deadline = start + 1_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            run.run();
+            runs++;
+        }
+        return runs * (double) offersPerRun / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private static FlightOfferSearch[] offers(String json, int count) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) sb.append(',');
+            sb.append(json);
+        }
+        return GSON.fromJson(sb.append(']').toString(), FlightOfferSearch[].class);
+    }
+
+    /** The mapper as it was before it became exception-free; kept only as a benchmark baseline. */
+    private static final class LegacyMapper {
+        static List<FlightOfferDTO> toFlightOfferDTOs(FlightOfferSearch[] offers, Map<String, String> airlineNames, List<JsonNode> rawOffers) {
+            List<FlightOfferDTO> out = new ArrayList<>();
+            for (int i = 0; i < offers.length; i++) {
+                FlightOfferSearch offer = offers[i];
+                FlightOfferDTO dto = new FlightOfferDTO();
+                dto.rawOffer = rawOffers.get(i);
+                try {
+                    dto.id = offer.getId();
+                    PriceDTO price = new PriceDTO();
+                    price.total = String.valueOf(offer.getPrice().getTotal());
+                    price.currency = offer.getPrice().getCurrency();
+                    dto.price = price;
+                    if (offer.getItineraries() != null && offer.getItineraries().length > 0) {
+                        FlightOfferSearch.Itinerary firstItinerary = offer.getItineraries()[0];
+                        dto.duration = firstItinerary.getDuration();
+                        if (firstItinerary.getSegments() != null && firstItinerary.getSegments().length > 0) {
+                            FlightOfferSearch.SearchSegment firstSegment = firstItinerary.getSegments()[0];
+                            FlightOfferSearch.SearchSegment lastSegment = firstItinerary.getSegments()[firstItinerary.getSegments().length - 1];
+                            dto.carrierCode = firstSegment.getCarrierCode();
+                            dto.airlineName = airlineNames.getOrDefault(dto.carrierCode, dto.carrierCode);
+                            dto.flightNumber = firstSegment.getNumber();
+                            dto.numberOfStops = Math.max(0, firstItinerary.getSegments().length - 1);
+                            dto.originCode = firstSegment.getDeparture().getIataCode();
+                            dto.destinationCode = lastSegment.getArrival().getIataCode();
+                            dto.departureTime = firstSegment.getDeparture().getAt();
+                            dto.arrivalTime = lastSegment.getArrival().getAt();
+                        }
+                    }
+                    if (offer.getTravelerPricings() != null && offer.getTravelerPricings().length > 0) {
+                        FlightOfferSearch.TravelerPricing tp = offer.getTravelerPricings()[0];
+                        if (tp.getFareDetailsBySegment() != null && tp.getFareDetailsBySegment().length > 0) {
+                            dto.cabin = tp.getFareDetailsBySegment()[0].getCabin();
+                        }
+                    }
+                } catch (Exception ignored) {
+                }
+                out.add(dto);
+            }
+            return out;
+        }
+    }
+}
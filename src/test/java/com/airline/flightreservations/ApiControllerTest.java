@@ -0,0 +1,147 @@
+package com.airline.flightreservations;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.airline.flightreservations.admission.AdmissionControl;
+import com.airline.flightreservations.combine.LegCache;
+import com.airline.flightreservations.fares.FareCrawler;
+import com.airline.flightreservations.fx.CurrencyReshop;
+import com.airline.flightreservations.fx.FxRates;
+import com.airline.flightreservations.geo.NearbyAirports;
+import com.airline.flightreservations.watch.PriceWatchScheduler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.time.LocalDate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+class ApiControllerTest {
+
+    // An offer found in USD and shown to the traveler converted to EUR
+    private static final String CONVERTED_OFFER = "{\"type\":\"flight-offer\",\"id\":\"1\",\"pricingCurrency\":\"EUR\","
+            + "\"price\":{\"currency\":\"USD\",\"total\":\"212.40\"},"
+            + "\"itineraries\":[{\"segments\":[{\"carrierCode\":\"UA\",\"number\":\"523\","
+            + "\"departure\":{\"iataCode\":\"JFK\",\"at\":\"2026-12-01T08:00:00\"},"
+            + "\"arrival\":{\"iataCode\":\"LAX\",\"at\":\"2026-12-01T11:05:00\"}}]}]}";
+
+    private AmadeusConnect amadeusConnect;
+    private CurrencyReshop currencyReshop;
+    private PriceWatchScheduler priceWatches;
+    private LegCache legCache;
+    private NearbyAirports nearbyAirports;
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        amadeusConnect = mock(AmadeusConnect.class);
+        currencyReshop = mock(CurrencyReshop.class);
+        priceWatches = mock(PriceWatchScheduler.class);
+        legCache = mock(LegCache.class);
+        nearbyAirports = mock(NearbyAirports.class);
+        FxRates fxRates = mock(FxRates.class);
+        when(fxRates.searchCurrency(any())).thenAnswer(call -> call.getArgument(0));
+        when(fxRates.convert(any(), any())).thenAnswer(call -> call.getArgument(0));
+        ApiController controller = new ApiController(amadeusConnect, new ObjectMapper(),
+                priceWatches, mock(FareCrawler.class), mock(AdmissionControl.class), nearbyAirports,
+                legCache, fxRates, currencyReshop);
+        mvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void confirmPricesAConvertedOfferInItsPricingCurrency() throws Exception {
+        JsonObject inEuros = JsonParser.parseString(CONVERTED_OFFER.replace("\"USD\"", "\"EUR\"")).getAsJsonObject();
+        when(currencyReshop.reshop(any(), eq("EUR"))).thenReturn(inEuros);
+        when(amadeusConnect.priceOffer(inEuros)).thenReturn(
+                JsonParser.parseString("{\"data\":{\"flightOffers\":[{\"price\":{\"currency\":\"EUR\",\"total\":\"196.10\"}}]}}")
+                        .getAsJsonObject());
+
+        mvc.perform(post("/api/flights/confirm").contentType(MediaType.APPLICATION_JSON).content(CONVERTED_OFFER))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.flightOffers[0].price.currency").value("EUR"));
+    }
+
+    @Test
+    void confirmAnswersConflictWhenTheOfferIsGoneInItsPricingCurrency() throws Exception {
+        when(currencyReshop.reshop(any(), eq("EUR"))).thenReturn(null);
+
+        mvc.perform(post("/api/flights/confirm").contentType(MediaType.APPLICATION_JSON).content(CONVERTED_OFFER))
+                .andExpect(status().isConflict());
+        verify(amadeusConnect, never()).priceOffer(any());
+    }
+
+    @Test
+    void nearbyAirportsRejectsCoordinatesAndRadiiThatAreNotNumbers() throws Exception {
+        mvc.perform(get("/api/airports/nearby").param("lat", "NaN").param("lon", "2.35"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/api/airports/nearby").param("lat", "48.86").param("lon", "NaN"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/api/airports/nearby").param("lat", "48.86").param("lon", "2.35").param("radiusKm", "NaN"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/api/airports/nearby").param("lat", "48.86").param("lon", "2.35").param("radiusKm", "Infinity"))
+                .andExpect(status().isBadRequest());
+        verify(nearbyAirports, never()).nearest(anyDouble(), anyDouble(), anyDouble(), anyInt());
+    }
+
+    @Test
+    void nearbyAirportsUsesTheConfiguredRadiusByDefault() throws Exception {
+        when(nearbyAirports.defaultRadiusKm()).thenReturn(250.0);
+
+        mvc.perform(get("/api/airports/nearby").param("lat", "48.86").param("lon", "2.35"))
+                .andExpect(status().isOk());
+        verify(nearbyAirports).nearest(48.86, 2.35, 250.0, 10);
+    }
+
+    @Test
+    void oneWaySearchesBypassTheLegCacheUnlessEnabled() throws Exception {
+        mvc.perform(get("/api/flights").param("origin", "JFK").param("destination", "LAX")
+                        .param("departDate", "2026-12-01").param("adults", "1"))
+                .andExpect(status().isOk());
+
+        verify(amadeusConnect).flights("JFK", "LAX", "2026-12-01", "1", 0, 0, null, null, "USD", 10);
+        verify(legCache, never()).getOrLoad(any(), anyInt(), any());
+    }
+
+    @Test
+    void searchesWithoutAnAdultAreNeverCached() throws Exception {
+        when(legCache.cachesSearches()).thenReturn(true);
+
+        mvc.perform(get("/api/flights").param("origin", "JFK").param("destination", "LAX")
+                        .param("departDate", "2026-12-01").param("adults", "0"))
+                .andExpect(status().isOk());
+
+        verify(amadeusConnect).flights("JFK", "LAX", "2026-12-01", "0", 0, 0, null, null, "USD", 10);
+        verify(legCache, never()).getOrLoad(any(), anyInt(), any());
+    }
+
+    @Test
+    void watchDatesAreCheckedAgainstTheSchedulersDay() throws Exception {
+        // Already the 11th in UTC, whatever the server's zone says
+        when(priceWatches.today()).thenReturn(LocalDate.parse("2026-11-11"));
+        when(priceWatches.watch(any(), eq(7L), eq(0))).thenReturn(1L);
+
+        mvc.perform(post("/api/watches").contentType(MediaType.APPLICATION_JSON).content(watch("2026-11-10")))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors[0]").value("departDate: must not be in the past"));
+        mvc.perform(post("/api/watches").contentType(MediaType.APPLICATION_JSON).content(watch("2026-11-11")))
+                .andExpect(status().isCreated());
+    }
+
+    private static String watch(String departDate) {
+        return "{\"subscriberId\":7,\"origin\":\"JFK\",\"destination\":\"LAX\",\"departDate\":\"" + departDate + "\"}";
+    }
+}
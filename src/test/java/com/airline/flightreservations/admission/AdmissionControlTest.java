@@ -0,0 +1,67 @@
+package com.airline.flightreservations.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class AdmissionControlTest {
+
+    @Test
+    void classifiesByEndpoint() {
+        assertNull(AdmissionControl.classify("/api/health"));
+        assertNull(AdmissionControl.classify("/index.html"));
+        assertEquals(RequestClass.CRITICAL, AdmissionControl.classify("/api/bookings/order"));
+        assertEquals(RequestClass.CRITICAL, AdmissionControl.classify("/api/flights/confirm"));
+        assertEquals(RequestClass.SEARCH, AdmissionControl.classify("/api/flights"));
+        assertEquals(RequestClass.SEARCH, AdmissionControl.classify("/api/flights/combinations"));
+        assertEquals(RequestClass.READ, AdmissionControl.classify("/api/airports"));
+    }
+
+    @Test
+    void trailingSlashesAndPathParametersDoNotChangeTheClass() {
+        assertEquals(RequestClass.SEARCH, AdmissionControl.classify("/api/flights/"));
+        assertEquals(RequestClass.SEARCH, AdmissionControl.classify("/api/flights;x=y"));
+        assertEquals(RequestClass.SEARCH, AdmissionControl.classify("/api/flights;jsessionid=ABC/"));
+        assertEquals(RequestClass.SEARCH, AdmissionControl.classify("/api//flights//combinations"));
+        assertEquals(RequestClass.CRITICAL, AdmissionControl.classify("/api/traveler/"));
+        assertEquals(RequestClass.CRITICAL, AdmissionControl.classify("/api/flights/confirm/"));
+        assertNull(AdmissionControl.classify("/api/health/"));
+        assertNull(AdmissionControl.classify("/api/health;x=y"));
+    }
+
+    @Test
+    void searchesAreShedBeforeBookings() throws InterruptedException {
+        AdmissionControl admission = new AdmissionControl(true, 10,
+                new ClassLimiter(new GradientLimit(10, 1, 10), 0, 0, 1),
+                new ClassLimiter(new GradientLimit(10, 1, 10), 0, 0, 1),
+                new ClassLimiter(new GradientLimit(10, 1, 10), 0, 0, 5));
+
+        // Searches stop at 60% of capacity even though their own limit is 10
+        int admitted = 0;
+        while (admission.admit(RequestClass.SEARCH) != null) admitted++;
+        assertEquals(6, admitted);
+
+        AdmissionControl.Permit booking = admission.admit(RequestClass.CRITICAL);
+        assertNotNull(booking);
+        booking.release();
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> search = (Map<String, Object>) admission.stats().get("search");
+        assertEquals(6L, search.get("admitted"));
+        assertEquals(1L, search.get("shed"));
+        assertEquals(5, admission.retryAfterSeconds(RequestClass.SEARCH));
+    }
+
+    @Test
+    void limitShrinksWhenLatencyClimbs() {
+        GradientLimit limit = new GradientLimit(50, 1, 100);
+        for (int i = 0; i < 200; i++) limit.onSample(10_000_000L, 50);
+        int steady = limit.limit();
+        for (int i = 0; i < 50; i++) limit.onSample(100_000_000L, steady);
+        assertTrue(limit.limit() < steady, "limit should back off when latency grows 10x");
+    }
+}
@@ -0,0 +1,168 @@
+package com.airline.flightreservations.combine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.airline.flightreservations.MutableClock;
+import com.airline.flightreservations.dto.FlightOfferDTO;
+import com.airline.flightreservations.dto.ItineraryDTO;
+import com.airline.flightreservations.dto.PriceDTO;
+import com.airline.flightreservations.dto.SegmentDTO;
+import com.airline.flightreservations.watch.WatchKey;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class RoundTripCombinerTest {
+
+    private static final Instant NOW = Instant.parse("2026-11-01T00:00:00Z");
+
+    @Test
+    void cheapestPairsMatchTheSortedCrossProduct() {
+        Random random = new Random(7);
+        for (int round = 0; round < 50; round++) {
+            List<FlightOfferDTO> out = new ArrayList<>(), in = new ArrayList<>();
+            for (int i = 0, n = 1 + random.nextInt(40); i < n; i++) out.add(offer("o" + i, 5000 + random.nextInt(50000), null, null));
+            for (int i = 0, n = 1 + random.nextInt(40); i < n; i++) in.add(offer("i" + i, 5000 + random.nextInt(50000), null, null));
+            LegCache.Leg outbound = new LegCache.Leg(out, 0, 50), inbound = new LegCache.Leg(in, 0, 50);
+
+            List<Integer> all = new ArrayList<>();
+            for (int a : outbound.cents) for (int b : inbound.cents) all.add(a + b);
+            all.sort(null);
+
+            int k = 1 + random.nextInt(30);
+            int[][] pairs = RoundTripCombiner.cheapestPairs(outbound, inbound, k, 0);
+            assertEquals(Math.min(k, all.size()), pairs.length);
+            for (int p = 0; p < pairs.length; p++) {
+                assertEquals((int) all.get(p), outbound.cents[pairs[p][0]] + inbound.cents[pairs[p][1]]);
+            }
+        }
+    }
+
+    @Test
+    void skipsReturnsThatLeaveBeforeTheMinimumStay() {
+        LegCache.Leg outbound = new LegCache.Leg(List.of(
+                offer("1", 10000, "2026-12-01T08:00:00", "2026-12-01T11:00:00"),
+                offer("2", 12000, "2026-12-01T15:00:00", "2026-12-01T18:00:00")), 0, 50);
+        LegCache.Leg inbound = new LegCache.Leg(List.of(
+                offer("1", 9000, "2026-12-01T19:00:00", "2026-12-01T22:00:00"),
+                offer("2", 20000, "2026-12-02T09:00:00", "2026-12-02T12:00:00")), 0, 50);
+
+        List<FlightOfferDTO> combos = RoundTripCombiner.combine(outbound, inbound, 10, Duration.ofHours(2));
+
+        // 2+1 leaves only one hour on the ground
+        assertEquals(List.of("1+1", "1+2", "2+2"), ids(combos));
+        FlightOfferDTO cheapest = combos.get(0);
+        assertEquals("190.00", cheapest.price.total);
+        assertEquals(2, cheapest.itineraries.size());
+        assertEquals(2, cheapest.rawOffer.get(RoundTripCombiner.FLIGHT_OFFERS).size());
+        assertEquals("JFK", cheapest.originCode);
+    }
+
+    @Test
+    void legsExpireAfterTheTtl() {
+        MutableClock clock = new MutableClock(NOW);
+        LegCache cache = new LegCache(clock, Duration.ofMinutes(10), 2, 50, Duration.ofHours(2), true);
+        WatchKey key = new WatchKey("jfk", "lax", LocalDate.parse("2026-12-01"), 1, null, "usd");
+
+        cache.put(key, List.of(offer("1", 10000, null, null), offer("x", -1, null, null)), 10);
+        assertNotNull(cache.get(new WatchKey("JFK", "LAX", LocalDate.parse("2026-12-01"), 1, "", "USD")));
+        assertEquals(1, cache.get(key).size(), "offers without a usable price are dropped");
+
+        clock.advance(Duration.ofMinutes(11));
+        assertNull(cache.get(key));
+    }
+
+    @Test
+    void concurrentMissesShareOneFetch() throws Exception {
+        LegCache cache = new LegCache(Clock.fixed(NOW, ZoneOffset.UTC), Duration.ofMinutes(10), 10, 50,
+                Duration.ofHours(2), true);
+        WatchKey key = new WatchKey("JFK", "LAX", LocalDate.parse("2026-12-01"), 1, null, "USD");
+        AtomicInteger fetches = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        LegCache.Loader loader = (k, max) -> {
+            fetches.incrementAndGet();
+            release.await();
+            return List.of(offer("1", 10000, null, null));
+        };
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<LegCache.Leg>> calls = new ArrayList<>();
+            for (int i = 0; i < 8; i++) calls.add(pool.submit(() -> cache.getOrLoad(key, 10, loader)));
+            while (((Number) cache.stats().get("sharedFetches")).intValue() < 7) Thread.sleep(1);
+            release.countDown();
+
+            LegCache.Leg first = calls.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<LegCache.Leg> call : calls) assertSame(first, call.get(5, TimeUnit.SECONDS));
+            assertEquals(1, fetches.get(), "one upstream search for all eight callers");
+            assertSame(first, cache.getOrLoad(key, 10, loader));
+            assertEquals(1, fetches.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void failedFetchesAreNotCached() throws Exception {
+        LegCache cache = new LegCache(Clock.fixed(NOW, ZoneOffset.UTC), Duration.ofMinutes(10), 10, 50,
+                Duration.ofHours(2), true);
+        WatchKey key = new WatchKey("JFK", "LAX", LocalDate.parse("2026-12-01"), 1, null, "USD");
+
+        assertThrows(IllegalStateException.class, () -> cache.getOrLoad(key, 10, (k, max) -> {
+            throw new IllegalStateException("upstream down");
+        }));
+        assertNull(cache.get(key));
+
+        LegCache.Leg leg = cache.getOrLoad(key, 10, (k, max) -> List.of(offer("1", 10000, null, null)));
+        assertEquals(1, leg.size());
+
+        // A larger request than the cached fetch covers goes upstream again
+        AtomicInteger fetches = new AtomicInteger();
+        cache.getOrLoad(key, 20, (k, max) -> {
+            fetches.incrementAndGet();
+            return List.of(offer("2", 9000, null, null));
+        });
+        assertEquals(1, fetches.get());
+    }
+
+    private static List<String> ids(List<FlightOfferDTO> offers) {
+        List<String> ids = new ArrayList<>();
+        for (FlightOfferDTO o : offers) ids.add(o.id);
+        return ids;
+    }
+
+    private static FlightOfferDTO offer(String id, int cents, String departAt, String arriveAt) {
+        FlightOfferDTO dto = new FlightOfferDTO();
+        dto.id = id;
+        dto.price = new PriceDTO();
+        dto.price.currency = "USD";
+        dto.price.total = cents < 0 ? "n/a" : String.valueOf(cents / 100.0);
+        dto.originCode = "JFK";
+        dto.rawOffer = JsonNodeFactory.instance.objectNode().put("id", id);
+
+        SegmentDTO segment = new SegmentDTO();
+        segment.departureAt = departAt;
+        segment.arrivalAt = arriveAt;
+        ItineraryDTO itinerary = new ItineraryDTO();
+        itinerary.segments = List.of(segment);
+        dto.itineraries = List.of(itinerary);
+        return dto;
+    }
+}
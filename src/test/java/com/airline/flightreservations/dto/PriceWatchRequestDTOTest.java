@@ -0,0 +1,62 @@
+package com.airline.flightreservations.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class PriceWatchRequestDTOTest {
+
+    private static ValidatorFactory factory;
+    private static Validator validator;
+
+    @BeforeAll
+    static void createValidator() {
+        factory = Validation.buildDefaultValidatorFactory();
+        validator = factory.getValidator();
+    }
+
+    @AfterAll
+    static void closeValidator() {
+        factory.close();
+    }
+
+    @Test
+    void acceptsAPositiveTargetOrNone() {
+        assertTrue(invalidFields(request(null)).isEmpty());
+        assertTrue(invalidFields(request(249.99)).isEmpty());
+        assertTrue(invalidFields(request(1_000_000.0)).isEmpty());
+    }
+
+    @Test
+    void rejectsTargetsThatCouldNeverFireOrWouldOverflow() {
+        assertEquals(Set.of("targetPrice"), invalidFields(request(0.0)));
+        assertEquals(Set.of("targetPrice"), invalidFields(request(-50.0)));
+        assertEquals(Set.of("targetPrice"), invalidFields(request(21_474_837.0)), "more cents than an int holds");
+    }
+
+    private static Set<String> invalidFields(PriceWatchRequestDTO dto) {
+        return validator.validate(dto).stream()
+                .map(ConstraintViolation::getPropertyPath)
+                .map(Object::toString)
+                .collect(Collectors.toSet());
+    }
+
+    private static PriceWatchRequestDTO request(Double targetPrice) {
+        PriceWatchRequestDTO dto = new PriceWatchRequestDTO();
+        dto.subscriberId = 7L;
+        dto.origin = "JFK";
+        dto.destination = "LAX";
+        dto.departDate = "2026-12-01";
+        dto.targetPrice = targetPrice;
+        return dto;
+    }
+}
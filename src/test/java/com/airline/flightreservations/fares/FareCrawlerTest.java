@@ -0,0 +1,84 @@
+package com.airline.flightreservations.fares;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.airline.flightreservations.watch.FarePoller;
+import com.airline.flightreservations.watch.WatchKey;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.OptionalDouble;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.Test;
+
+class FareCrawlerTest {
+
+    // 23:30 in UTC is already the next day east of Greenwich: the crawler counts in UTC
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-11-10T23:30:00Z"), ZoneOffset.UTC);
+    private static final LocalDate TODAY = LocalDate.parse("2026-11-10");
+
+    @Test
+    void oneCycleFillsEveryRouteAndDate() {
+        List<WatchKey> polled = new CopyOnWriteArrayList<>();
+        FarePoller poller = key -> {
+            polled.add(key);
+            if (key.destination.equals("MIA") && key.departDate.equals(TODAY.plusDays(1))) return OptionalDouble.empty();
+            return OptionalDouble.of(100 + key.departDate.getDayOfMonth() + (key.destination.equals("LAX") ? 0.5 : 0));
+        };
+        FareCrawler crawler = new FareCrawler(new FareIndex(List.of("JFK-LAX", "JFK-MIA"), 3), poller, CLOCK,
+                "USD", true, 60_000);
+        assertEquals(TODAY, crawler.today());
+
+        for (int i = 0; i < 6; i++) crawler.crawlNext();
+
+        assertEquals(6, polled.size(), "one upstream search per tick");
+        assertEquals(new WatchKey("JFK", "LAX", TODAY, 1, null, "USD"), polled.get(0));
+        FareIndex index = crawler.index();
+        assertEquals(11050, index.get(0, TODAY));
+        assertEquals(11250, index.get(0, TODAY.plusDays(2)));
+        assertEquals(11000, index.get(1, TODAY));
+        assertEquals(0, index.get(1, TODAY.plusDays(1)), "nothing sold");
+
+        // The next cycle starts over at the first cell
+        crawler.crawlNext();
+        assertEquals(polled.get(0), polled.get(6));
+    }
+
+    @Test
+    void failedSearchesKeepThePreviousFare() {
+        boolean[] fail = {false};
+        FareCrawler crawler = new FareCrawler(new FareIndex(List.of("JFK-LAX"), 1), key -> {
+            if (fail[0]) throw new IllegalStateException("upstream down");
+            return OptionalDouble.of(250);
+        }, CLOCK, "USD", true, 60_000);
+
+        crawler.crawlNext();
+        fail[0] = true;
+        crawler.crawlNext();
+        assertEquals(25000, crawler.index().get(0, TODAY));
+    }
+
+    @Test
+    void staysWithinTheRequestBudget() throws Exception {
+        FareCrawler configured = new FareCrawler(key -> OptionalDouble.empty(), List.of("JFK-LAX"), 60, 10, "USD", false);
+        assertEquals(6_000, configured.tickMillis(), "10 requests per minute");
+
+        List<WatchKey> polled = new CopyOnWriteArrayList<>();
+        FareCrawler crawler = new FareCrawler(new FareIndex(List.of("JFK-LAX", "JFK-MIA"), 60), key -> {
+            polled.add(key);
+            return OptionalDouble.of(99);
+        }, CLOCK, "USD", true, 50);
+        crawler.start();
+        try {
+            Thread.sleep(520);
+        } finally {
+            crawler.stop();
+        }
+        // Ticks run with a fixed delay of 50 ms, starting immediately: at most 11 in 520 ms
+        int calls = polled.size();
+        assertTrue(calls >= 1 && calls <= 11, "searches in 520 ms: " + calls);
+    }
+}
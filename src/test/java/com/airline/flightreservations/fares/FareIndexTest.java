@@ -0,0 +1,50 @@
+package com.airline.flightreservations.fares;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class FareIndexTest {
+
+    private static final LocalDate TODAY = LocalDate.parse("2026-11-10");
+
+    @Test
+    void cheapestDestinationsUsesTheMonthMinimum() {
+        FareIndex index = new FareIndex(List.of("JFK-LAX", "JFK-MIA", "ORD-LAX", "jfk-lax"), 60);
+        assertEquals(3, index.routeCount());
+
+        index.put(0, TODAY.plusDays(1), 30000);
+        index.put(0, TODAY.plusDays(5), 21000);
+        index.put(1, TODAY.plusDays(2), 15000);
+        index.put(1, TODAY.plusDays(30), 9000); // December, not in this month
+
+        List<FareIndex.Fare> fares = index.cheapestDestinations("jfk", YearMonth.from(TODAY), TODAY);
+        assertEquals(2, fares.size());
+        assertEquals("MIA", fares.get(0).destination);
+        assertEquals(15000, fares.get(0).cents);
+        assertEquals("LAX", fares.get(1).destination);
+        assertEquals(TODAY.plusDays(5), fares.get(1).date);
+
+        // Raising the month's cheapest day falls back to the next best one
+        index.put(0, TODAY.plusDays(5), 40000);
+        fares = index.cheapestDestinations("JFK", YearMonth.from(TODAY), TODAY);
+        assertEquals(30000, fares.get(1).cents);
+    }
+
+    @Test
+    void ringCellsDoNotLeakAcrossTheHorizon() {
+        FareIndex index = new FareIndex(List.of("JFK-LAX"), 30);
+        index.put(0, TODAY, 12000);
+        assertEquals(12000, index.get(0, TODAY));
+        assertEquals(0, index.get(0, TODAY.plusDays(30)));
+
+        index.put(0, TODAY.plusDays(30), 13000);
+        assertEquals(0, index.get(0, TODAY));
+        assertTrue(index.cheapestDates("JFK", "LAX", TODAY, TODAY).isEmpty());
+        assertEquals(1, index.cheapestDates("JFK", "LAX", TODAY, TODAY.plusDays(30)).size());
+    }
+}
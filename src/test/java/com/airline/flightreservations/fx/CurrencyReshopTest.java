@@ -0,0 +1,136 @@
+package com.airline.flightreservations.fx;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.airline.flightreservations.AmadeusConnect;
+import com.amadeus.Response;
+import com.amadeus.resources.FlightOfferSearch;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CurrencyReshopTest {
+
+    private static final String OUT = segment("UA", "523", "JFK", "LAX", "2026-12-01T08:00:00");
+    private static final String BACK = segment("UA", "524", "LAX", "JFK", "2026-12-08T13:00:00");
+    private static final String OTHER_OUT = segment("DL", "10", "JFK", "LAX", "2026-12-01T09:30:00");
+
+    private AmadeusConnect amadeusConnect;
+    private CurrencyReshop reshop;
+
+    @BeforeEach
+    void setUp() {
+        amadeusConnect = mock(AmadeusConnect.class);
+        reshop = new CurrencyReshop(amadeusConnect, 100);
+    }
+
+    @Test
+    void prefersTheOfferWithTheSameFareBasis() throws Exception {
+        JsonObject exact = offer("USD", itineraries(OUT), traveler("ADULT", "ECONOMY", "KAA7AFEN"));
+        searchReturns(
+                offer("EUR", itineraries(OUT), traveler("ADULT", "ECONOMY", "LAA7AFEN")),
+                offer("EUR", itineraries(OUT), traveler("ADULT", "ECONOMY", "KAA7AFEN")),
+                offer("EUR", itineraries(OTHER_OUT), traveler("ADULT", "ECONOMY", "KAA7AFEN")));
+
+        JsonObject found = reshop.reshop(exact, "EUR");
+        assertEquals("KAA7AFEN|", CurrencyReshop.fareSignature(found));
+        assertEquals(CurrencyReshop.flightSignature(exact), CurrencyReshop.flightSignature(found));
+    }
+
+    @Test
+    void fallsBackToTheSameFlightsOnAnotherFare() throws Exception {
+        searchReturns(
+                offer("EUR", itineraries(OTHER_OUT), traveler("ADULT", "ECONOMY", "KAA7AFEN")),
+                offer("EUR", itineraries(OUT), traveler("ADULT", "ECONOMY", "LAA7AFEN")),
+                offer("EUR", itineraries(OUT), traveler("ADULT", "ECONOMY", "MAA7AFEN")));
+
+        JsonObject found = reshop.reshop(offer("USD", itineraries(OUT), traveler("ADULT", "ECONOMY", "KAA7AFEN")), "EUR");
+        assertEquals("LAA7AFEN|", CurrencyReshop.fareSignature(found), "the cheapest on the same flights");
+    }
+
+    @Test
+    void noOfferOnTheSameFlightsIsNull() throws Exception {
+        searchReturns(offer("EUR", itineraries(OTHER_OUT), traveler("ADULT", "ECONOMY", "KAA7AFEN")));
+
+        assertNull(reshop.reshop(offer("USD", itineraries(OUT), traveler("ADULT", "ECONOMY", "KAA7AFEN")), "EUR"));
+    }
+
+    @Test
+    void searchesTheRoundTripForTheSameTravelers() throws Exception {
+        searchReturns();
+        JsonObject roundTrip = offer("USD", itineraries(OUT, BACK),
+                traveler("ADULT", "ECONOMY", "KAA7AFEN", "ECONOMY", "KAA7AFEN"),
+                traveler("ADULT", "ECONOMY", "KAA7AFEN", "ECONOMY", "KAA7AFEN"),
+                traveler("CHILD", "ECONOMY", "KAA7AFCH", "ECONOMY", "KAA7AFCH"),
+                traveler("HELD_INFANT", "ECONOMY", "KAA7AFIN", "ECONOMY", "KAA7AFIN"));
+
+        reshop.reshop(roundTrip, "EUR");
+        verify(amadeusConnect).flights("JFK", "LAX", "2026-12-01", "2", 1, 1, "2026-12-08", "ECONOMY", "EUR", 100);
+    }
+
+    @Test
+    void mixedCabinsAreSearchedWithoutACabin() throws Exception {
+        searchReturns();
+        JsonObject upgradedReturn = offer("USD", itineraries(OUT, BACK),
+                traveler("ADULT", "ECONOMY", "KAA7AFEN", "BUSINESS", "JAA7AFEN"));
+
+        reshop.reshop(upgradedReturn, "EUR");
+        verify(amadeusConnect).flights(eq("JFK"), eq("LAX"), eq("2026-12-01"), eq("1"), eq(0), eq(0),
+                eq("2026-12-08"), isNull(), eq("EUR"), eq(100));
+    }
+
+    private void searchReturns(JsonObject... data) throws Exception {
+        JsonObject result = new JsonObject();
+        JsonArray array = new JsonArray();
+        for (JsonObject o : data) array.add(o);
+        result.add("data", array);
+        Response response = mock(Response.class);
+        when(response.getResult()).thenReturn(result);
+        FlightOfferSearch first = mock(FlightOfferSearch.class);
+        when(first.getResponse()).thenReturn(response);
+        when(amadeusConnect.flights(anyString(), anyString(), anyString(), anyString(), anyInt(), anyInt(),
+                any(), any(), anyString(), anyInt())).thenReturn(new FlightOfferSearch[]{first});
+    }
+
+    private static String segment(String carrier, String number, String from, String to, String at) {
+        return "{\"carrierCode\":\"" + carrier + "\",\"number\":\"" + number + "\","
+                + "\"departure\":{\"iataCode\":\"" + from + "\",\"at\":\"" + at + "\"},"
+                + "\"arrival\":{\"iataCode\":\"" + to + "\"}}";
+    }
+
+    private static String itineraries(String... segmentsPerItinerary) {
+        StringBuilder sb = new StringBuilder("[");
+        for (String segment : segmentsPerItinerary) {
+            if (sb.length() > 1) sb.append(',');
+            sb.append("{\"segments\":[").append(segment).append("]}");
+        }
+        return sb.append(']').toString();
+    }
+
+    // A traveler's cabin and fare basis per segment, in pairs
+    private static String traveler(String type, String... cabinsAndFares) {
+        StringBuilder sb = new StringBuilder("{\"travelerType\":\"" + type + "\",\"fareDetailsBySegment\":[");
+        for (int i = 0; i < cabinsAndFares.length; i += 2) {
+            if (i > 0) sb.append(',');
+            sb.append("{\"cabin\":\"").append(cabinsAndFares[i]).append("\",\"fareBasis\":\"")
+                    .append(cabinsAndFares[i + 1]).append("\"}");
+        }
+        return sb.append("]}").toString();
+    }
+
+    private static JsonObject offer(String currency, String itineraries, String... travelers) {
+        return JsonParser.parseString("{\"price\":{\"currency\":\"" + currency + "\"},\"itineraries\":" + itineraries
+                + ",\"travelerPricings\":[" + String.join(",", travelers) + "]}").getAsJsonObject();
+    }
+}
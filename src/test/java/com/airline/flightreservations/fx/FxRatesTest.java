@@ -0,0 +1,106 @@
+package com.airline.flightreservations.fx;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.airline.flightreservations.dto.FlightOfferDTO;
+import com.airline.flightreservations.dto.PriceDTO;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class FxRatesTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-10-19T18:00:00Z"), ZoneOffset.UTC);
+
+    @Test
+    void convertsBaseCurrencyOffersAndMarksThem() throws Exception {
+        FxRates fx = load("base=USD\nasOf=2026-10-19T16:00:00Z\nEUR=0.9214\nJPY=149.53\nbad=x\n");
+
+        assertEquals("USD", fx.searchCurrency("eur"));
+        assertEquals("USD", fx.searchCurrency("USD"));
+        assertEquals("CHF", fx.searchCurrency("CHF"), "no rate: search upstream in the requested currency");
+
+        FlightOfferDTO offer = offer("312.45");
+        FlightOfferDTO eur = fx.convert(List.of(offer), "EUR").get(0);
+        assertEquals("287.89", eur.price.total);
+        assertEquals("EUR", eur.price.currency);
+        assertEquals("USD", eur.price.convertedFrom);
+        assertEquals("2026-10-19T16:00:00Z", eur.price.fxAsOf);
+        assertEquals("EUR", eur.rawOffer.get(FxRates.PRICING_CURRENCY).asText());
+        assertNull(offer.rawOffer.get(FxRates.PRICING_CURRENCY), "the cached offer is left untouched");
+
+        assertEquals("46721", fx.convert(List.of(offer), "JPY").get(0).price.total);
+        assertSame(offer, fx.convert(List.of(offer), "USD").get(0));
+    }
+
+    @Test
+    void staleTablesAreNotUsed() throws Exception {
+        FxRates fx = load("base=USD\nasOf=2026-10-10T16:00:00Z\nEUR=0.9214\n");
+
+        assertEquals("EUR", fx.searchCurrency("EUR"));
+        FlightOfferDTO offer = offer("100.00");
+        assertSame(offer, fx.convert(List.of(offer), "EUR").get(0));
+        assertEquals(false, fx.stats().get("fresh"));
+    }
+
+    @Test
+    void rejectsAFileForAnotherBase() throws Exception {
+        Path file = Files.createTempFile("fx", ".properties");
+        try {
+            Files.writeString(file, "base=EUR\nasOf=2026-10-19T16:00:00Z\nUSD=1.08\n");
+            FxRates fx = new FxRates(file.toString(), "USD", Duration.ofDays(4), Duration.ofHours(1), CLOCK);
+            assertThrows(IOException.class, fx::reload);
+            assertEquals("USD", fx.searchCurrency("USD"));
+            assertEquals("EUR", fx.searchCurrency("EUR"));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void rejectsAFileWithoutAsOf() throws Exception {
+        // A fresh mtime (touch, copy, redeploy) must not make undated rates look current
+        Path file = Files.createTempFile("fx", ".properties");
+        try {
+            Files.writeString(file, "base=USD\nEUR=0.9214\n");
+            FxRates fx = new FxRates(file.toString(), "USD", Duration.ofDays(4), Duration.ofHours(1), CLOCK);
+            IOException error = assertThrows(IOException.class, fx::reload);
+            assertEquals("Rate file has no asOf", error.getMessage());
+            assertEquals("EUR", fx.searchCurrency("EUR"));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static FxRates load(String contents) throws Exception {
+        Path file = Files.createTempFile("fx", ".properties");
+        try {
+            Files.writeString(file, contents);
+            FxRates fx = new FxRates(file.toString(), "USD", Duration.ofDays(4), Duration.ofHours(1), CLOCK);
+            fx.reload();
+            return fx;
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static FlightOfferDTO offer(String total) {
+        FlightOfferDTO dto = new FlightOfferDTO();
+        dto.id = "1";
+        dto.price = new PriceDTO();
+        dto.price.total = total;
+        dto.price.currency = "USD";
+        dto.rawOffer = JsonNodeFactory.instance.objectNode().put("id", "1");
+        return dto;
+    }
+}
@@ -0,0 +1,107 @@
+package com.airline.flightreservations.geo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.airline.flightreservations.dto.LocationDTO;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class AirportGeoIndexTest {
+
+    @Test
+    void matchesBruteForceOnRandomAirports() {
+        Random random = new Random(42);
+        List<LocationDTO> airports = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            airports.add(airport("A" + i, Math.toDegrees(Math.asin(2 * random.nextDouble() - 1)),
+                    random.nextDouble() * 360 - 180));
+        }
+        AirportGeoIndex index = AirportGeoIndex.build(airports);
+
+        for (int q = 0; q < 200; q++) {
+            double lat = random.nextDouble() * 180 - 90;
+            double lon = random.nextDouble() * 360 - 180;
+            double radius = q % 2 == 0 ? 500 : 20_000;
+            List<AirportGeoIndex.Hit> hits = index.nearest(lat, lon, radius, 8);
+
+            List<double[]> expected = new ArrayList<>();
+            for (int i = 0; i < airports.size(); i++) {
+                double d = AirportGeoIndex.greatCircleKm(lat, lon, airports.get(i).latitude, airports.get(i).longitude);
+                if (d <= radius) expected.add(new double[]{i, d});
+            }
+            expected.sort(Comparator.comparingDouble(e -> e[1]));
+
+            assertEquals(Math.min(8, expected.size()), hits.size());
+            for (int i = 0; i < hits.size(); i++) {
+                assertEquals(expected.get(i)[1], hits.get(i).distanceKm, 1e-6);
+            }
+        }
+    }
+
+    @Test
+    void searchesAcrossTheAntimeridian() {
+        AirportGeoIndex index = AirportGeoIndex.build(List.of(
+                airport("NAN", -17.7554, 177.4434),
+                airport("SUV", -18.0433, 178.5592),
+                airport("APW", -13.8300, -172.0083),
+                airport("SYD", -33.9399, 151.1753)));
+
+        List<AirportGeoIndex.Hit> hits = index.nearest(-17.0, -179.9, 500, 10);
+        assertEquals(2, hits.size());
+        assertEquals("SUV", hits.get(0).airport.iataCode);
+        assertEquals("NAN", hits.get(1).airport.iataCode);
+        assertTrue(hits.get(0).distanceKm < hits.get(1).distanceKm);
+    }
+
+    @Test
+    void skipsAirportsWithoutCoordinatesAndMalformedRows() throws Exception {
+        String csv = "# comment\niata,name,city,country,latitude,longitude\n"
+                + "jfk,John F Kennedy International,New York,US,40.6413,-73.7781\n"
+                + "XXX,Broken,Nowhere,US,north,west\n"
+                + "LGA,LaGuardia,New York,US,40.7769,-73.8740\n";
+        Map<String, LocationDTO> parsed = new LinkedHashMap<>();
+        assertEquals(1, NearbyAirports.readCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), parsed));
+        assertEquals(List.of("JFK", "LGA"), new ArrayList<>(parsed.keySet()));
+
+        List<LocationDTO> airports = new ArrayList<>(parsed.values());
+        airports.add(new LocationDTO()); // no coordinates
+        AirportGeoIndex index = AirportGeoIndex.build(airports);
+        assertEquals(2, index.size());
+
+        // Times Square: LaGuardia is ~10 km away, JFK ~21 km
+        List<AirportGeoIndex.Hit> hits = index.nearest(40.7580, -73.9855, 50, 5);
+        assertEquals("LGA", hits.get(0).airport.iataCode);
+        assertEquals(9.6, hits.get(0).distanceKm, 1.0);
+        assertEquals(List.of(), index.nearest(40.7580, -73.9855, 5, 5));
+    }
+
+    @Test
+    void readsQuotedFieldsAndCountsRowsThatStillDoNotParse() throws Exception {
+        String csv = "CDG,\"Paris, Charles de Gaulle\",Paris,FR,49.0097,2.5479\n"
+                + "\"ORD\",\"O'Hare \"\"Chicago\"\"\",Chicago,US,41.9742,-87.9073\n"
+                + "XXA,\"Unclosed, quote,Nowhere,US,10.0,10.0\n"
+                + "XXB,Not a number,Nowhere,US,NaN,10.0\n"
+                + "XXC,Off the map,Nowhere,US,95.0,10.0\n";
+        Map<String, LocationDTO> parsed = new LinkedHashMap<>();
+        assertEquals(3, NearbyAirports.readCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), parsed));
+        assertEquals(List.of("CDG", "ORD"), new ArrayList<>(parsed.keySet()));
+        assertEquals("Paris, Charles de Gaulle", parsed.get("CDG").name);
+        assertEquals("O'Hare \"Chicago\"", parsed.get("ORD").name);
+    }
+
+    private static LocationDTO airport(String code, double lat, double lon) {
+        LocationDTO dto = new LocationDTO();
+        dto.iataCode = code;
+        dto.latitude = lat;
+        dto.longitude = lon;
+        return dto;
+    }
+}
@@ -0,0 +1,187 @@
+package com.airline.flightreservations.startup;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * Cold start of each packaged variant against a local stub upstream ({@link TrainingUpstream}).
+ * Build the variants to compare first ({@code mvn package}, {@code mvn -Pcds package},
+ * {@code mvn -Pnative package}), then run with -Dbenchmark=true from the project directory.
+ * Variants whose artifact is missing are skipped.
+ *
+ * Prints, per variant, the median over -Dbenchmark.runs starts of the time from launch to
+ * the first 200 from /api/health and from /api/flights, and the RSS right after that search.
+ */
+class StartupBenchmarkTest {
+
+    private static final Path TARGET = Paths.get("target");
+    private static final Duration START_TIMEOUT = Duration.ofSeconds(90);
+
+    /** Prints cold-start times and RSS per variant; run with -Dbenchmark=true after packaging. */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void coldStartPerVariant() throws Exception {
+        int runs = Integer.getInteger("benchmark.runs", 5);
+        HttpServer upstream = TrainingUpstream.start();
+        try {
+            for (Variant variant : variants()) {
+                if (variant.command == null) {
+                    System.out.printf("%-16s skipped: %s%n", variant.name, variant.missing);
+                    continue;
+                }
+                long[] health = new long[runs], flights = new long[runs], rss = new long[runs];
+                for (int run = 0; run < runs; run++) {
+                    long[] sample = coldStart(variant, upstream.getAddress().getPort());
+                    health[run] = sample[0];
+                    flights[run] = sample[1];
+                    rss[run] = sample[2];
+                }
+                System.out.printf("%-16s health %6d ms   flights %6d ms   rss %5d MB   (median of %d)%n",
+                        variant.name, median(health), median(flights), median(rss) / 1024, runs);
+            }
+        } finally {
+            upstream.stop(0);
+        }
+    }
+
+    /** Launches one variant and returns {ms to /api/health, ms to /api/flights, RSS in kB}. */
+    private static long[] coldStart(Variant variant, int upstreamPort) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>(variant.command);
+        command.addAll(List.of(
+                "--server.port=" + port,
+                "--amadeus.api-key=benchmark",
+                "--amadeus.api-secret=benchmark",
+                "--amadeus.host=localhost",
+                "--amadeus.port=" + upstreamPort,
+                "--amadeus.ssl=false",
+                "--amadeus.pool.http2=false",
+                "--fares.enabled=false"));
+        File log = File.createTempFile("startup-" + variant.name.replace('+', '-'), ".log");
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        String base = "http://localhost:" + port;
+        String search = base + "/api/flights?origin=JFK&destination=LAX&adults=1&departDate="
+                + LocalDate.now().plusDays(30);
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log).start();
+        try {
+            long health = firstSuccess(client, base + "/api/health", start, process, log);
+            long flights = firstSuccess(client, search, start, process, log);
+            return new long[]{health, flights, rssKb(process.pid())};
+        } finally {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) process.destroyForcibly().waitFor();
+            if (!log.delete()) log.deleteOnExit();
+        }
+    }
+
+    // Milliseconds from launch until the URL first answers 200
+    private static long firstSuccess(HttpClient client, String url, long start, Process process, File log) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(10)).build();
+        while (true) {
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                }
+            } catch (IOException notListeningYet) {
+                // keep polling
+            }
+            if (!process.isAlive() || System.nanoTime() - start > START_TIMEOUT.toNanos()) {
+                throw new AssertionError("No 200 from " + url + "; application log: " + log);
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private static List<Variant> variants() throws IOException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        Path fatJar = artifact(TARGET, "-exec.jar"); // -Pnative moves the boot jar to the exec classifier
+        if (fatJar == null) fatJar = artifact(TARGET, ".jar");
+        Path cdsDir = TARGET.resolve("cds");
+        Path thinJar = artifact(cdsDir, "-cds.jar");
+        Path archive = cdsDir.resolve("app.jsa");
+        Path nativeImage = TARGET.resolve("flight-reservations");
+
+        List<Variant> variants = new ArrayList<>();
+        variants.add(fatJar != null
+                ? new Variant("jar", List.of(java, "-jar", fatJar.toString()), null)
+                : new Variant("jar", null, "no boot jar in target (mvn package)"));
+        variants.add(thinJar != null
+                ? new Variant("thin-jar", List.of(java, "-jar", thinJar.toString()), null)
+                : new Variant("thin-jar", null, "no target/cds jar (mvn -Pcds package)"));
+        variants.add(thinJar != null && Files.exists(archive)
+                ? new Variant("thin-jar+appcds",
+                        // Same relative jar path the archive was dumped with; -Xshare:on fails on a mismatch
+                        List.of(java, "-Xshare:on", "-XX:SharedArchiveFile=" + archive, "-jar", thinJar.toString()), null)
+                : new Variant("thin-jar+appcds", null, "no target/cds/app.jsa (mvn -Pcds package)"));
+        variants.add(Files.isExecutable(nativeImage)
+                ? new Variant("native", List.of(nativeImage.toString()), null)
+                : new Variant("native", null, "no target/flight-reservations (mvn -Pnative package)"));
+        return variants;
+    }
+
+    // The project jar in dir whose name ends with suffix; the boot jar is the one without a classifier
+    private static Path artifact(Path dir, String suffix) throws IOException {
+        if (!Files.isDirectory(dir)) return null;
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> {
+                String name = p.getFileName().toString();
+                if (!name.startsWith("flight-reservations-") || !name.endsWith(suffix)) return false;
+                return !suffix.equals(".jar") || !name.matches(".*-(cds|exec|sources|tests)\\.jar");
+            }).findFirst().orElse(null);
+        }
+    }
+
+    private static long rssKb(long pid) throws IOException {
+        Path status = Paths.get("/proc", String.valueOf(pid), "status");
+        if (!Files.exists(status)) return 0; // not Linux
+        for (String line : Files.readAllLines(status)) {
+            if (line.startsWith("VmRSS:")) return Long.parseLong(line.replaceAll("[^0-9]", ""));
+        }
+        return 0;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static final class Variant {
+        final String name;
+        final List<String> command;     // null when the artifact is missing
+        final String missing;
+
+        Variant(String name, List<String> command, String missing) {
+            this.name = name;
+            this.command = command;
+            this.missing = missing;
+        }
+    }
+}
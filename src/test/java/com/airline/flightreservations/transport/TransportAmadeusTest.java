@@ -0,0 +1,117 @@
+package com.airline.flightreservations.transport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.amadeus.Amadeus;
+import com.amadeus.Configuration;
+import com.amadeus.Params;
+import com.amadeus.exceptions.ClientException;
+import com.amadeus.resources.FlightOfferSearch;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TransportAmadeusTest {
+
+    private HttpServer server;
+    private final AtomicInteger tokenCalls = new AtomicInteger();
+    private volatile int tokenSeconds = 1799;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/v1/security/oauth2/token", ex -> {
+            tokenCalls.incrementAndGet();
+            String form = new String(ex.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            assertTrue(form.contains("grant_type=client_credentials"));
+            reply(ex, 200, "{\"access_token\":\"t0k3n\",\"expires_in\":" + tokenSeconds + "}");
+        });
+        server.createContext("/v2/shopping/flight-offers", ex -> {
+            if (!"Bearer t0k3n".equals(ex.getRequestHeaders().getFirst("Authorization"))) {
+                reply(ex, 401, "{\"errors\":[{\"detail\":\"bad token\"}]}");
+            } else if (ex.getRequestURI().getQuery().contains("originLocationCode=XXX")) {
+                reply(ex, 400, "{\"errors\":[{\"source\":{\"parameter\":\"originLocationCode\"},\"detail\":\"unknown\"}]}");
+            } else {
+                reply(ex, 200, "{\"data\":[{\"id\":\"1\",\"price\":{\"currency\":\"USD\",\"total\":\"99.50\"}}]}");
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+    }
+
+    @Test
+    void sdkCallsGoThroughTheTransport() throws Exception {
+        Configuration config = Amadeus.builder("id", "secret").setSsl(false);
+        config.setHost("localhost");
+        config.setPort(server.getAddress().getPort());
+        PooledHttpTransport transport = new PooledHttpTransport(4,
+                Duration.ofSeconds(2), Duration.ofSeconds(5), 1000, false);
+
+        try (TransportAmadeus amadeus = new TransportAmadeus(config, transport, 60_000)) {
+            assertEquals(0, tokenCalls.get(), "building the client makes no calls");
+            Params search = Params.with("originLocationCode", "JFK").and("destinationLocationCode", "LAX")
+                    .and("departureDate", "2026-12-01").and("adults", 1);
+            FlightOfferSearch[] offers = amadeus.shopping.flightOffersSearch.get(search);
+            amadeus.shopping.flightOffersSearch.get(search);
+
+            assertEquals(1, offers.length);
+            assertEquals(99.5, offers[0].getPrice().getTotal());
+            assertNotNull(offers[0].getResponse().getResult());
+            assertEquals(1, tokenCalls.get(), "token is fetched once and reused");
+
+            ClientException error = assertThrows(ClientException.class, () ->
+                    amadeus.shopping.flightOffersSearch.get(Params.with("originLocationCode", "XXX")));
+            assertTrue(error.getMessage().startsWith("[400]"));
+
+            Map<String, Object> stats = amadeus.stats();
+            assertEquals(4L, stats.get("requests"), "token call plus three searches");
+            assertEquals(0L, stats.get("failures"));
+        }
+    }
+
+    @Test
+    void tokensShorterThanTheRefreshMarginAreNotRefreshedInALoop() throws Exception {
+        tokenSeconds = 6; // refresh-ahead is a minute
+        Configuration config = Amadeus.builder("id", "secret").setSsl(false);
+        config.setHost("localhost");
+        config.setPort(server.getAddress().getPort());
+        PooledHttpTransport transport = new PooledHttpTransport(4,
+                Duration.ofSeconds(2), Duration.ofSeconds(5), 1000, false);
+
+        try (TransportAmadeus amadeus = new TransportAmadeus(config, transport, 60_000)) {
+            amadeus.start();
+            Thread.sleep(2_500);
+            Params search = Params.with("originLocationCode", "JFK").and("destinationLocationCode", "LAX")
+                    .and("departureDate", "2026-12-01").and("adults", 1);
+            for (int i = 0; i < 5; i++) amadeus.shopping.flightOffersSearch.get(search);
+
+            // Renewed at half its 6 s lifetime, so still the first token
+            assertEquals(1, tokenCalls.get(), "token calls");
+        }
+    }
+
+    private static void reply(HttpExchange ex, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "application/vnd.amadeus+json");
+        ex.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
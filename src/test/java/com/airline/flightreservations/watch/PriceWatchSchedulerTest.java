@@ -0,0 +1,88 @@
+package com.airline.flightreservations.watch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.airline.flightreservations.MutableClock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.OptionalDouble;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class PriceWatchSchedulerTest {
+
+    private static final Instant START = Instant.parse("2026-10-01T00:00:00Z");
+    private static final WatchKey JFK_LAX =
+            new WatchKey("jfk", "lax", LocalDate.parse("2026-10-03"), 1, "economy", "usd");
+
+    @Test
+    void watchesOnTheSameSearchShareOnePoll() {
+        AtomicInteger polls = new AtomicInteger();
+        double[] price = {300.00};
+        MutableClock clock = new MutableClock(START);
+        InMemoryPriceWatchSink sink = new InMemoryPriceWatchSink(2000);
+        PriceWatchScheduler scheduler = new PriceWatchScheduler(key -> {
+            polls.incrementAndGet();
+            return OptionalDouble.of(price[0]);
+        }, sink, new PollPolicy(Duration.ofMinutes(30)), clock, Runnable::run, 10, 1000);
+
+        for (int i = 0; i < 1000; i++) {
+            scheduler.watch(new WatchKey("JFK", "LAX", LocalDate.parse("2026-10-03"), 1, "ECONOMY", "USD"), i, 0);
+        }
+        assertEquals(1000, scheduler.watchCount());
+        assertEquals(1, scheduler.searchCount());
+
+        clock.advance(Duration.ofMinutes(30));
+        scheduler.tick();
+        assertEquals(1, polls.get());
+        assertTrue(sink.drain().isEmpty(), "first poll only records a baseline");
+
+        price[0] = 250.00;
+        clock.advance(Duration.ofMinutes(35));
+        scheduler.tick();
+        assertEquals(2, polls.get());
+        List<PriceDropEvent> events = sink.drain();
+        assertEquals(1000, events.size());
+        assertEquals(30000, events.get(0).getPreviousCents());
+        assertEquals(25000, events.get(0).getCurrentCents());
+    }
+
+    @Test
+    void targetPriceAndCancellationAreRespected() {
+        double[] price = {300.00};
+        MutableClock clock = new MutableClock(START);
+        InMemoryPriceWatchSink sink = new InMemoryPriceWatchSink(100);
+        PriceWatchScheduler scheduler = new PriceWatchScheduler(key -> OptionalDouble.of(price[0]),
+                sink, new PollPolicy(Duration.ofMinutes(30)), clock, Runnable::run, 10, 1000);
+
+        long anyDrop = scheduler.watch(JFK_LAX, 1, 0);
+        scheduler.watch(JFK_LAX, 2, 20000);
+        long cancelled = scheduler.watch(JFK_LAX, 3, 0);
+        assertTrue(scheduler.unwatch(cancelled));
+        assertFalse(scheduler.unwatch(cancelled));
+
+        clock.advance(Duration.ofMinutes(30));
+        scheduler.tick();
+        price[0] = 250.00;
+        clock.advance(Duration.ofMinutes(35));
+        scheduler.tick();
+
+        List<PriceDropEvent> events = sink.drain();
+        assertEquals(1, events.size());
+        assertEquals(anyDrop, events.get(0).getWatchId());
+    }
+
+    @Test
+    void pollIntervalShrinksTowardsDeparture() {
+        PollPolicy policy = new PollPolicy(Duration.ofMinutes(30));
+        LocalDate today = LocalDate.parse("2026-10-01");
+        long close = policy.intervalMillis(today.plusDays(2), today);
+        long far = policy.intervalMillis(today.plusDays(90), today);
+        assertEquals(Duration.ofMinutes(30).toMillis(), close);
+        assertTrue(far > close);
+    }
+}